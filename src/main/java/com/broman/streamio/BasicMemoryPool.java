@@ -39,10 +39,8 @@ public class BasicMemoryPool implements MemoryPool {
             memory = allocator.allocate(size);
         }
         else {
-            for (int i = 0; i < size; i++) {
-                // Clear memory
-                memory.put(i, (byte) 0);
-            }
+            // Clear memory
+            memory.fill(0, size, (byte) 0);
         }
 
         checkMemory(memory);
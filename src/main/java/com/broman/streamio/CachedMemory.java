@@ -0,0 +1,93 @@
+package com.broman.streamio;
+
+/**
+ * <p>
+ * A reusable cache of the last memory block resolved by a stream accessor.</p>
+ *
+ * <p>
+ * Each accessor (reader, writer, thread...) should hold its own cache so
+ * concurrent accessors do not evict each other's block. Updating the cache
+ * does not allocate, but it is not thread-safe, a cache must never be
+ * shared between threads.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ * @see    IStreamio#get(int, CachedMemory)
+ */
+public final class CachedMemory {
+
+    private IStreamio owner;
+    private Memory memory;
+    private int min = -1;
+    private int max = -1;
+
+    /**
+     * <p>
+     * Get the cached memory block if it contains the provided index.</p>
+     *
+     * @param owner the stream looking for the block.
+     * @param index the index of the stream to look for.
+     * @return the memory block, or null if it is not cached.
+     */
+    public Memory get(IStreamio owner, int index) {
+        if (index >= min && index < max && this.owner == owner) {
+            return memory;
+        }
+        return null;
+    }
+
+    /**
+     * <p>
+     * Cache a memory block.</p>
+     *
+     * @param owner      the stream the block belongs to.
+     * @param memory     the memory block.
+     * @param blockIndex the index of the block within the stream.
+     * @param blockSize  the block size of the stream.
+     */
+    public void set(IStreamio owner, Memory memory, int blockIndex, int blockSize) {
+        this.owner = owner;
+        this.memory = memory;
+        this.min = blockIndex * blockSize;
+        this.max = (int) Math.min((long) min + blockSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * <p>
+     * Forget the cached memory block.</p>
+     */
+    public void clear() {
+        this.owner = null;
+        this.memory = null;
+        this.min = -1;
+        this.max = -1;
+    }
+
+    /**
+     * @return the cached memory block, or null if there is none.
+     */
+    public Memory memory() {
+        return memory;
+    }
+
+    /**
+     * @return the index of the stream where the cached block starts.
+     */
+    public int min() {
+        return min;
+    }
+
+    /**
+     * @return the index of the stream where the cached block ends (exclusive).
+     */
+    public int max() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedMemory(min=" + min + ", max=" + max + ")";
+    }
+
+}
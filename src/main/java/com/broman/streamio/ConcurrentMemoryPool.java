@@ -0,0 +1,278 @@
+package com.broman.streamio;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.broman.streamio.memory.MemoryType;
+
+/**
+ * <p>
+ * A thread-safe memory pool with per-thread caches.</p>
+ *
+ * <p>
+ * Each thread gets and offers memory blocks through its own magazine, a
+ * small stack of blocks, without any synchronization. A thread with an
+ * empty magazine swaps it for a full one from a shared lock-free depot,
+ * and a thread with a full magazine moves it to the depot.
+ * </p>
+ *
+ * <p>
+ * Blocks are cleared when they are offered, so {@link #get(MemoryAllocator)}
+ * never pays for it. When the depot holds more blocks than the high
+ * watermark, blocks are closed until it holds no more than the low watermark.
+ * </p>
+ *
+ * <p>
+ * A thread holds no more than one magazine, so besides the depot the pool
+ * holds at most {@code magazineSize} blocks per live thread. Once a thread
+ * exits and is garbage collected, the blocks of its magazine are moved back
+ * to the depot the next time a thread finds the depot empty.
+ * </p>
+ *
+ * <p>
+ * {@link #close()} must only be called once no thread uses this pool.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class ConcurrentMemoryPool implements MemoryPool {
+
+    public final static int DEFAULT_MAGAZINE_SIZE = 32;
+    public final static int DEFAULT_LOW_WATERMARK = 256;
+    public final static int DEFAULT_HIGH_WATERMARK = 1024;
+
+    private final int size;
+    private final MemoryType type;
+    private final int magazineSize;
+    private final int lowWatermark;
+    private final int highWatermark;
+
+    private final Queue<Memory[]> depot = new ConcurrentLinkedQueue<>();
+    private final Queue<Memory[]> empties = new ConcurrentLinkedQueue<>();
+    private final Queue<Magazine> magazines = new ConcurrentLinkedQueue<>();
+    // Magazines whose thread was garbage collected
+    private final ReferenceQueue<Thread> orphans = new ReferenceQueue<>();
+    private final AtomicInteger available = new AtomicInteger();
+    private final ThreadLocal<Magazine> magazine = ThreadLocal.withInitial(this::createMagazine);
+
+    public ConcurrentMemoryPool(int size, MemoryType type) {
+        this(size, type, DEFAULT_MAGAZINE_SIZE, DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK);
+    }
+
+    /**
+     * @param size          the size in bytes of the memory blocks.
+     * @param type          the type of the memory blocks.
+     * @param magazineSize  the amount of blocks each thread keeps for itself.
+     * @param lowWatermark  the amount of blocks the depot is trimmed to.
+     * @param highWatermark the amount of blocks in the depot that triggers a trim.
+     */
+    public ConcurrentMemoryPool(int size, MemoryType type, int magazineSize, int lowWatermark, int highWatermark) {
+        if (magazineSize < 1) {
+            throw new IllegalArgumentException("Magazine size must be greater than 0");
+        }
+        if (lowWatermark < 0 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high");
+        }
+        this.size = size;
+        this.type = type;
+        this.magazineSize = magazineSize;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+    }
+
+    public void reserve(int count, MemoryAllocator allocator) {
+        checkType(allocator.getType());
+        for (int i = 0; i < count; i += magazineSize) {
+            Memory[] blocks = new Memory[magazineSize];
+            for (int j = 0; j < blocks.length; j++) {
+                blocks[j] = allocator.allocate(size);
+            }
+            depot.add(blocks);
+            available.addAndGet(blocks.length);
+        }
+    }
+
+    @Override
+    public Memory get(MemoryAllocator allocator) {
+        checkType(allocator.getType());
+        Magazine local = magazine.get();
+
+        if (local.count == 0) {
+            Memory[] blocks = depot.poll();
+            if (blocks == null && reclaim()) {
+                blocks = depot.poll();
+            }
+            if (blocks != null) {
+                available.addAndGet(-blocks.length);
+                if (local.blocks.length == magazineSize) {
+                    empties.add(local.blocks);
+                }
+                local.blocks = blocks;
+                local.count = blocks.length;
+            }
+        }
+
+        Memory memory;
+        if (local.count == 0) {
+            memory = allocator.allocate(size);
+        } else {
+            memory = local.blocks[--local.count];
+            local.blocks[local.count] = null;
+        }
+
+        checkMemory(memory);
+        memory.setCloseHandler((m) -> {
+            throw new RuntimeException("Memory block was not returned to pool");
+        });
+
+        return memory;
+    }
+
+    @Override
+    public void offer(Memory memory) {
+        checkMemory(memory);
+        memory.setCloseHandler(null);
+        // Clear memory
+        memory.fill(0, size, (byte) 0);
+
+        Magazine local = magazine.get();
+        if (local.count == local.blocks.length) {
+            depot.add(local.blocks);
+            int count = local.blocks.length;
+            Memory[] blocks = empties.poll();
+            local.blocks = blocks == null ? new Memory[magazineSize] : blocks;
+            local.count = 0;
+
+            if (available.addAndGet(count) > highWatermark) {
+                trim();
+            }
+        }
+        local.blocks[local.count++] = memory;
+    }
+
+    /**
+     * <p>
+     * Close blocks of the depot until it holds no more than the low watermark.</p>
+     */
+    private void trim() {
+        while (available.get() > lowWatermark) {
+            Memory[] blocks = depot.poll();
+            if (blocks == null) {
+                break;
+            }
+            available.addAndGet(-blocks.length);
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i].close();
+                blocks[i] = null;
+            }
+            if (blocks.length == magazineSize) {
+                empties.add(blocks);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Move the blocks of the magazines whose thread was garbage collected to
+     * the depot.</p>
+     *
+     * @return true if any block was moved, false otherwise.
+     */
+    private boolean reclaim() {
+        boolean moved = false;
+        Reference<? extends Thread> reference;
+        while ((reference = orphans.poll()) != null) {
+            Magazine orphan = (Magazine) reference;
+            if (!magazines.remove(orphan) || orphan.count == 0) {
+                // Already emptied by close
+                continue;
+            }
+            // Depot magazines are full, a partial one is cut to its blocks
+            Memory[] blocks = orphan.count == orphan.blocks.length ? orphan.blocks : Arrays.copyOf(orphan.blocks, orphan.count);
+            orphan.blocks = null;
+            orphan.count = 0;
+            depot.add(blocks);
+            moved = true;
+
+            if (available.addAndGet(blocks.length) > highWatermark) {
+                trim();
+            }
+        }
+        return moved;
+    }
+
+    private Magazine createMagazine() {
+        Magazine created = new Magazine(new Memory[magazineSize], Thread.currentThread(), orphans);
+        magazines.add(created);
+        return created;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentMemoryPool(available=" + available.get() + ")";
+    }
+
+    @Override
+    public void close() {
+        try {
+            Memory[] blocks;
+            while ((blocks = depot.poll()) != null) {
+                for (Memory memory : blocks) {
+                    memory.close();
+                }
+            }
+            for (Magazine local : magazines) {
+                for (int i = 0; i < local.count; i++) {
+                    local.blocks[i].close();
+                    local.blocks[i] = null;
+                }
+                local.count = 0;
+            }
+            available.set(0);
+            empties.clear();
+        }
+        catch(Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private void checkType(MemoryType type) {
+        if (this.type != type) {
+            throw new IllegalArgumentException("Memory block type does not match pool block type");
+        }
+    }
+
+    private void checkMemory(Memory memory) {
+        if (memory == null) {
+            throw new IllegalArgumentException("Memory block is null");
+        }
+        if (memory.closed()) {
+            throw new IllegalArgumentException("Memory block is closed");
+        }
+        if (memory.size() != size) {
+            throw new IllegalArgumentException("Memory block size does not match pool block size");
+        }
+    }
+
+    /**
+     * A per-thread stack of memory blocks, enqueued once its thread is
+     * garbage collected.
+     */
+    private static final class Magazine extends WeakReference<Thread> {
+
+        Memory[] blocks;
+        int count;
+
+        Magazine(Memory[] blocks, Thread owner, ReferenceQueue<Thread> orphans) {
+            super(owner, orphans);
+            this.blocks = blocks;
+        }
+
+    }
+
+}
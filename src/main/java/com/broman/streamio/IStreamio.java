@@ -1,7 +1,11 @@
 package com.broman.streamio;
 
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 
 /**
  * <p>
@@ -62,6 +66,46 @@ public interface IStreamio extends AutoCloseable {
      */
     void defaultByte(byte value);
 
+    /**
+     * <p>
+     * Get the default value of the stream.</p>
+     *
+     * @see #defaultByte(byte)
+     *
+     * @return the default byte value.
+     */
+    byte defaultByte();
+
+    /**
+     * <p>
+     * Verify if this stream is closed.</p>
+     *
+     * <p>
+     * Once closed, its memory blocks may have been handed to another stream
+     * through a memory pool, so every access fails with an
+     * IllegalStateException, including accesses through accessors and
+     * caches resolved before the stream was closed.
+     * </p>
+     *
+     * @return true if this stream is closed, false otherwise.
+     */
+    boolean closed();
+
+    /**
+     * <p>
+     * Get a view of this stream holding its own {@link CachedMemory}.</p>
+     *
+     * <p>
+     * Every read and write made through the view looks for memory blocks
+     * through the view's cache, so each accessor of a shared stream keeps
+     * its own hot block without allocating. The view is not thread-safe,
+     * and closing it does not close this stream.
+     * </p>
+     *
+     * @return a new view of this stream.
+     */
+    IStreamio accessor();
+
     /**
      * <p>
      * Get a byte from this stream.</p>
@@ -74,6 +118,42 @@ public interface IStreamio extends AutoCloseable {
      */
     byte get(int index);
 
+    /**
+     * <p>
+     * Get a byte from this stream, looking for its memory block through the
+     * provided cache.</p>
+     *
+     * <p>
+     * Accessors that hold their own {@link CachedMemory} keep their hot block
+     * even when other accessors work on different blocks of the same stream.
+     * </p>
+     *
+     * @see #get(int)
+     *
+     * @param index the position of the byte to look for.
+     * @param cache the cache of the accessor.
+     * @return the byte at the provided index.
+     */
+    byte get(int index, CachedMemory cache);
+
+    /**
+     * <p>
+     * Get the memory block holding a byte of this stream, looking for it
+     * through the provided cache.</p>
+     *
+     * <p>
+     * Once a block is returned the cache describes it, the block starts at
+     * {@link CachedMemory#min()} of this stream. Decoders use this to work on
+     * the block directly until they reach its end.
+     * </p>
+     *
+     * @param index  the position of the byte.
+     * @param create whether to allocate the block if it does not exist yet.
+     * @param cache  the cache of the accessor.
+     * @return the memory block, or null if it is not allocated.
+     */
+    Memory memoryAt(int index, boolean create, CachedMemory cache);
+
     /**
      * <p>
      * Put a byte into this stream.</p>
@@ -89,6 +169,84 @@ public interface IStreamio extends AutoCloseable {
      */
     void put(int index, byte value);
 
+    /**
+     * <p>
+     * Put a byte into this stream, looking for its memory block through the
+     * provided cache.</p>
+     *
+     * @see #put(int, byte)
+     * @see #get(int, CachedMemory)
+     *
+     * @param index the position where to set the byte.
+     * @param value the value to be set.
+     * @param cache the cache of the accessor.
+     */
+    void put(int index, byte value, CachedMemory cache);
+
+    /**
+     * <p>
+     * Get a short from this stream.</p>
+     *
+     * <p>
+     * Values held by a single memory block are read with one access, values
+     * crossing a block boundary are assembled byte by byte. Bytes of blocks
+     * not allocated yet are the default byte.
+     * </p>
+     *
+     * @param index the position of the first byte of the value.
+     * @param order the byte order of the value.
+     * @return the short at the provided index.
+     */
+    short getShort(int index, ByteOrder order);
+
+    /**
+     * <p>
+     * Put a short into this stream.</p>
+     *
+     * @see #getShort(int, ByteOrder)
+     *
+     * @param index the position of the first byte of the value.
+     * @param value the value to be set.
+     * @param order the byte order of the value.
+     */
+    void putShort(int index, short value, ByteOrder order);
+
+    /**
+     * @see #getShort(int, ByteOrder)
+     *
+     * @param index the position of the first byte of the value.
+     * @param order the byte order of the value.
+     * @return the int at the provided index.
+     */
+    int getInt(int index, ByteOrder order);
+
+    /**
+     * @see #putShort(int, short, ByteOrder)
+     *
+     * @param index the position of the first byte of the value.
+     * @param value the value to be set.
+     * @param order the byte order of the value.
+     */
+    void putInt(int index, int value, ByteOrder order);
+
+    /**
+     * @see #getShort(int, ByteOrder)
+     *
+     * @param index the position of the first byte of the value.
+     * @param order the byte order of the value.
+     * @return the long at the provided index.
+     */
+    long getLong(int index, ByteOrder order);
+
+    /**
+     * @see #putShort(int, short, ByteOrder)
+     *
+     * @param index the position of the first byte of the value.
+     * @param value the value to be set.
+     * @param order the byte order of the value.
+     */
+    void putLong(int index, long value, ByteOrder order);
+
     /**
      * <p>
      * Put a byte array into this stream.</p>
@@ -109,6 +267,36 @@ public interface IStreamio extends AutoCloseable {
      */
     void put(int index, byte[] value);
 
+    /**
+     * <p>
+     * Put a range of a byte array into this stream.</p>
+     *
+     * <p>
+     * The content is copied block by block, allocating the memory blocks
+     * that are still missing in the range.
+     * </p>
+     *
+     * @param index  the position where to set the first byte.
+     * @param value  the byte array to be included.
+     * @param offset the index of the byte array where to start.
+     * @param length the amount of bytes to include.
+     */
+    void put(int index, byte[] value, int offset, int length);
+
+    /**
+     * <p>
+     * Copy a range of this stream into a byte array.</p>
+     *
+     * <p>
+     * Also see {@link #defaultByte(byte)}</p>
+     *
+     * @param index  the position of the first byte to copy.
+     * @param dst    the destination array.
+     * @param offset the index of the destination array where to start.
+     * @param length the amount of bytes to copy.
+     */
+    void get(int index, byte[] dst, int offset, int length);
+
     /**
      * <p>
      * Slice this stream content into a byte array.</p>
@@ -122,30 +310,115 @@ public interface IStreamio extends AutoCloseable {
      * <p>
      * Also see {@link #defaultByte(byte)}</p>
      *
+     * <p>
+     * Unlike {@link #get(int, byte[], int, int)}, the range is given by its
+     * first and last index, so the array holds {@code end - offset + 1} bytes.
+     * </p>
+     *
      * @param offset the starting index.
-     * @param length the amount of bytes to take.
+     * @param end    the last index to take, inclusive.
      * @return the byte array result.
      */
-    byte[] array(int offset, int length);
+    byte[] array(int offset, int end);
 
     /**
      * <p>
      * Write this stream content into a ByteBuffer.</p>
      *
+     * <p>
+     * The range is given by its first and last index, as in
+     * {@link #array(int, int)}, so {@code end - offset + 1} bytes are written.
+     * </p>
+     *
      * @param buffer the buffer to write into.
      * @param offset the starting index.
-     * @param length the amount of bytes to write.
+     * @param end    the last index to write, inclusive.
      */
-    void writeTo(ByteBuffer buffer, int offset, int length);
+    void writeTo(ByteBuffer buffer, int offset, int end);
 
     /**
      * <p>
      * Write this stream content into an OutputStream.</p>
      *
+     * <p>
+     * The range is given by its first and last index, as in
+     * {@link #array(int, int)}, so {@code end - offset + 1} bytes are written.
+     * </p>
+     *
      * @param stream the stream to write into.
      * @param offset the starting index.
-     * @param length the amount of bytes to write.
+     * @param end    the last index to write, inclusive.
+     */
+    void writeTo(OutputStream stream, int offset, int end);
+
+    /**
+     * <p>
+     * Write this stream content into a GatheringByteChannel.</p>
+     *
+     * <p>
+     * Every memory block in the range is exposed as a ByteBuffer view and
+     * the whole range is handed to the channel with gathering writes, so
+     * the content is not copied by the stream. Blocks that cannot be viewed
+     * as a ByteBuffer, such as native memory allocated with Unsafe, are
+     * copied through a reusable direct staging buffer instead. Unallocated
+     * blocks are written from a shared read-only buffer filled with the
+     * default byte.
+     * </p>
+     *
+     * <p>
+     * Writing stops early if the channel does not accept more bytes, as
+     * a non-blocking channel may do.
+     * </p>
+     *
+     * @param channel the channel to write into.
+     * @param offset  the starting index.
+     * @param length  the amount of bytes to write, a count and not an end
+     *                index as in {@link #writeTo(ByteBuffer, int, int)}.
+     * @return the amount of bytes written.
+     */
+    long writeTo(GatheringByteChannel channel, int offset, int length);
+
+    /**
+     * <p>
+     * Read content from a ScatteringByteChannel into this stream.</p>
+     *
+     * <p>
+     * The memory blocks of the range are allocated (or taken from the memory
+     * pool) up front, exposed as ByteBuffer views and filled by the channel
+     * with scattering reads, so the content is not staged anywhere else.
+     * Blocks that cannot be viewed as a ByteBuffer are filled through a
+     * reusable direct staging buffer instead.
+     * </p>
+     *
+     * <p>
+     * Reading stops early when the channel reaches its end of stream or does
+     * not provide more bytes, as a non-blocking channel may do.
+     * </p>
+     *
+     * @param channel the channel to read from.
+     * @param offset  the position where to put the first byte.
+     * @param length  the maximum amount of bytes to read, a count and not an
+     *                end index.
+     * @return the amount of bytes read.
+     */
+    long readFrom(ScatteringByteChannel channel, int offset, int length);
+
+    /**
+     * <p>
+     * Read content from an InputStream into this stream.</p>
+     *
+     * <p>
+     * Heap memory blocks are filled straight from the InputStream, other
+     * memory blocks are filled through a chunk buffer reused for the whole call.
+     * Reading stops early when the InputStream reaches its end.
+     * </p>
+     *
+     * @param stream the stream to read from.
+     * @param offset the position where to put the first byte.
+     * @param length the maximum amount of bytes to read, a count and not an
+     *               end index.
+     * @return the amount of bytes read.
      */
-    void writeTo(OutputStream stream, int offset, int length);
+    int readFrom(InputStream stream, int offset, int length);
 
 }
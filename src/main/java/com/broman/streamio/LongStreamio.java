@@ -0,0 +1,391 @@
+package com.broman.streamio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import com.broman.streamio.memory.HeapMemoryAllocator;
+import com.broman.streamio.memory.MappedMemoryAllocator;
+import com.broman.streamio.memory.NativeMemoryAllocator;
+import com.broman.streamio.table.DynamicMemoryLookupTable;
+import com.broman.streamio.table.MappedMemoryLookupTable;
+
+/**
+ * <p>
+ * A stream of bytes addressed with long indexes.</p>
+ *
+ * <p>
+ * The stream is split in segments of up to {@value #MAX_SEGMENT_SIZE} bytes,
+ * each one being a {@link Streamio} created the first time it is accessed,
+ * so a sparse stream only pays for the segments and blocks it touches.
+ * Segments are a multiple of the block size, which means a memory block
+ * never spans two segments.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class LongStreamio implements AutoCloseable {
+
+    private final static int MAX_SEGMENT_SIZE = 1 << 30;
+
+    public static LongStreamio heap(long size, int blockSize) {
+        HeapMemoryAllocator allocator = new HeapMemoryAllocator();
+        return new LongStreamio(size, blockSize, (position, length) -> new Streamio(
+                length,
+                blockSize,
+                allocator,
+                new DynamicMemoryLookupTable(length, blockSize)
+        ));
+    }
+
+    public static LongStreamio direct(long size, int blockSize) {
+        NativeMemoryAllocator allocator = new NativeMemoryAllocator();
+        return new LongStreamio(size, blockSize, (position, length) -> new Streamio(
+                length,
+                blockSize,
+                allocator,
+                new DynamicMemoryLookupTable(length, blockSize)
+        ));
+    }
+
+    /**
+     * <p>
+     * Create a stream backed by a file, which is created if it does not exist.</p>
+     *
+     * @see Streamio#mapped(Path, int, int)
+     *
+     * @param path      the path of the file.
+     * @param size      the size in bytes of the stream.
+     * @param blockSize the size in bytes of each mapped region.
+     * @return the mapped stream.
+     */
+    public static LongStreamio mapped(Path path, long size, int blockSize) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedMemoryAllocator allocator = new MappedMemoryAllocator(channel);
+            return new LongStreamio(size, blockSize, (position, length) -> new Streamio(
+                    length,
+                    blockSize,
+                    allocator,
+                    new MappedMemoryLookupTable(allocator, position, length, blockSize)
+            ));
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private final long size;
+    private final int blockSize;
+    private final int segmentSize;
+    private final SegmentFactory factory;
+    private final Streamio[] segments;
+
+    private byte defaultByte = 0;
+    private MemoryPool pool;
+    private boolean closed = false;
+
+    LongStreamio(long size, int blockSize, SegmentFactory factory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+        if (blockSize < 1 || blockSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + MAX_SEGMENT_SIZE);
+        }
+        if (blockSize > size) {
+            blockSize = (int) size;
+        }
+        this.size = size;
+        this.blockSize = blockSize;
+        this.segmentSize = (MAX_SEGMENT_SIZE / blockSize) * blockSize;
+        this.factory = factory;
+        this.segments = new Streamio[Math.toIntExact((size + segmentSize - 1) / segmentSize)];
+    }
+
+    /**
+     * <p>
+     * Verify if this stream is closed.</p>
+     *
+     * @return true if this stream is closed, false otherwise.
+     */
+    public boolean closed() {
+        return closed;
+    }
+
+    /**
+     * @return the maximum size of this stream in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the size in bytes of this stream's block size.
+     */
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @see IStreamio#defaultByte(byte)
+     *
+     * @param value the value to be set.
+     */
+    public void defaultByte(byte value) {
+        this.defaultByte = value;
+        for (Streamio segment : segments) {
+            if (segment != null) {
+                segment.defaultByte(value);
+            }
+        }
+    }
+
+    public void useMemoryPool(MemoryPool pool) {
+        this.pool = pool;
+        for (Streamio segment : segments) {
+            if (segment != null) {
+                segment.useMemoryPool(pool);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Write the content of this stream to the storage device backing its
+     * memory blocks, if any.</p>
+     */
+    public void force() {
+        for (Streamio segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * @see IStreamio#get(int)
+     *
+     * @param index the position of the byte to look for.
+     * @return the byte at the provided index.
+     */
+    public byte get(long index) {
+        checkIndex(index);
+        return segmentAt(index).get(segmentIndex(index));
+    }
+
+    /**
+     * @see IStreamio#put(int, byte)
+     *
+     * @param index the position where to set the byte.
+     * @param value the value to be set.
+     */
+    public void put(long index, byte value) {
+        checkIndex(index);
+        segmentAt(index).put(segmentIndex(index), value);
+    }
+
+    public void put(long index, int value) {
+        put(index, (byte) value);
+    }
+
+    public void put(long index, byte[] value) {
+        put(index, value, 0, value.length);
+    }
+
+    /**
+     * @see IStreamio#put(int, byte[], int, int)
+     *
+     * @param index  the position where to set the first byte.
+     * @param value  the byte array to be included.
+     * @param offset the index of the byte array where to start.
+     * @param length the amount of bytes to include.
+     */
+    public void put(long index, byte[] value, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, value.length);
+        checkRange(index, length);
+        while (length > 0) {
+            int position = segmentIndex(index);
+            int span = Math.min(length, segmentSize - position);
+
+            segmentAt(index).put(position, value, offset, span);
+            index += span;
+            offset += span;
+            length -= span;
+        }
+    }
+
+    /**
+     * @see IStreamio#get(int, byte[], int, int)
+     *
+     * @param index  the position of the first byte to copy.
+     * @param dst    the destination array.
+     * @param offset the index of the destination array where to start.
+     * @param length the amount of bytes to copy.
+     */
+    public void get(long index, byte[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        checkRange(index, length);
+        while (length > 0) {
+            int position = segmentIndex(index);
+            int span = Math.min(length, segmentSize - position);
+
+            segmentAt(index).get(position, dst, offset, span);
+            index += span;
+            offset += span;
+            length -= span;
+        }
+    }
+
+    /**
+     * @see IStreamio#writeTo(GatheringByteChannel, int, int)
+     *
+     * @param channel the channel to write into.
+     * @param offset  the starting index.
+     * @param length  the amount of bytes to write.
+     * @return the amount of bytes written.
+     */
+    public long writeTo(GatheringByteChannel channel, long offset, long length) {
+        checkRange(offset, length);
+        long written = 0;
+        while (written < length) {
+            int position = segmentIndex(offset);
+            int span = (int) Math.min(length - written, segmentSize - position);
+            long result = segmentAt(offset).writeTo(channel, position, span);
+
+            written += result;
+            if (result < span) {
+                break;
+            }
+            offset += span;
+        }
+        return written;
+    }
+
+    /**
+     * @see IStreamio#readFrom(ScatteringByteChannel, int, int)
+     *
+     * @param channel the channel to read from.
+     * @param offset  the position where to put the first byte.
+     * @param length  the maximum amount of bytes to read.
+     * @return the amount of bytes read.
+     */
+    public long readFrom(ScatteringByteChannel channel, long offset, long length) {
+        checkRange(offset, length);
+        long read = 0;
+        while (read < length) {
+            int position = segmentIndex(offset);
+            int span = (int) Math.min(length - read, segmentSize - position);
+            long result = segmentAt(offset).readFrom(channel, position, span);
+
+            read += result;
+            if (result < span) {
+                break;
+            }
+            offset += span;
+        }
+        return read;
+    }
+
+    /**
+     * @see IStreamio#readFrom(InputStream, int, int)
+     *
+     * @param stream the stream to read from.
+     * @param offset the position where to put the first byte.
+     * @param length the maximum amount of bytes to read.
+     * @return the amount of bytes read.
+     */
+    public long readFrom(InputStream stream, long offset, long length) {
+        checkRange(offset, length);
+        long read = 0;
+        while (read < length) {
+            int position = segmentIndex(offset);
+            int span = (int) Math.min(length - read, segmentSize - position);
+            int result = segmentAt(offset).readFrom(stream, position, span);
+
+            read += result;
+            if (result < span) {
+                break;
+            }
+            offset += span;
+        }
+        return read;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index (" + index + ") is out of bounds. (0 - " + size + ")");
+        }
+    }
+
+    private void checkRange(long index, long length) {
+        if (index < 0 || length < 0 || index > size - length) {
+            throw new IndexOutOfBoundsException("range (" + index + ", " + length + ") is out of bounds. (0 - " + size + ")");
+        }
+    }
+
+    private int segmentIndex(long index) {
+        return (int) (index % segmentSize);
+    }
+
+    private Streamio segmentAt(long index) {
+        if (closed) {
+            // A new segment would quietly replace the closed one
+            throw new IllegalStateException("Stream is closed");
+        }
+        int segment = (int) (index / segmentSize);
+        Streamio streamio = segments[segment];
+
+        if (streamio == null) {
+            long position = (long) segment * segmentSize;
+            streamio = factory.create(position, (int) Math.min(segmentSize, size - position));
+            streamio.defaultByte(defaultByte);
+            streamio.useMemoryPool(pool);
+            segments[segment] = streamio;
+        }
+
+        return streamio;
+    }
+
+    /**
+     * <p>
+     * Close every segment of this stream, any later access fails with an
+     * {@link IllegalStateException}. Closing it again does nothing.</p>
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        RuntimeException failure = null;
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] != null) {
+                try {
+                    segments[i].close();
+                } catch (RuntimeException exception) {
+                    failure = exception;
+                }
+                segments[i] = null;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongStreamio(size=" + size + ", pool=" + pool + ", closed=" + closed + ")";
+    }
+
+    @FunctionalInterface
+    interface SegmentFactory {
+        Streamio create(long position, int size);
+    }
+
+}
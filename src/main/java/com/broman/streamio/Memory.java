@@ -1,5 +1,10 @@
 package com.broman.streamio;
 
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
 import java.util.function.Consumer;
 
 import com.broman.streamio.memory.MemoryType;
@@ -55,6 +60,284 @@ public abstract class Memory implements AutoCloseable {
      */
     public abstract void put(int index, byte value);
 
+    /**
+     * <p>
+     * Copy a range of this memory into a byte array.</p>
+     *
+     * <p>
+     * The default implementation copies byte by byte, implementations should
+     * override it with a bulk copy whenever possible.
+     * </p>
+     *
+     * @param index  the index of the first byte to copy.
+     * @param dst    the destination array.
+     * @param offset the index of the destination array where to start.
+     * @param length the amount of bytes to copy.
+     */
+    public void get(int index, byte[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(index, length, size());
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        for (int i = 0; i < length; i++) {
+            dst[offset + i] = get(index + i);
+        }
+    }
+
+    /**
+     * <p>
+     * Copy a range of a byte array into this memory.</p>
+     *
+     * @param index  the index of this memory where to start.
+     * @param src    the source array.
+     * @param offset the index of the source array where to start.
+     * @param length the amount of bytes to copy.
+     */
+    public void put(int index, byte[] src, int offset, int length) {
+        Objects.checkFromIndexSize(index, length, size());
+        Objects.checkFromIndexSize(offset, length, src.length);
+        for (int i = 0; i < length; i++) {
+            put(index + i, src[offset + i]);
+        }
+    }
+
+    /**
+     * <p>
+     * Copy a range of this memory into a ByteBuffer.</p>
+     *
+     * <p>
+     * Bytes are written at the current position of {@code dst}, which is
+     * advanced by {@code length}.
+     * </p>
+     *
+     * @param index  the index of the first byte to copy.
+     * @param dst    the destination buffer.
+     * @param length the amount of bytes to copy.
+     */
+    public void get(int index, ByteBuffer dst, int length) {
+        Objects.checkFromIndexSize(index, length, size());
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            dst.put(get(index + i));
+        }
+    }
+
+    /**
+     * <p>
+     * Copy the content of a ByteBuffer into this memory.</p>
+     *
+     * <p>
+     * Bytes are read from the current position of {@code src}, which is
+     * advanced by {@code length}.
+     * </p>
+     *
+     * @param index  the index of this memory where to start.
+     * @param src    the source buffer.
+     * @param length the amount of bytes to copy.
+     */
+    public void put(int index, ByteBuffer src, int length) {
+        Objects.checkFromIndexSize(index, length, size());
+        if (src.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            put(index + i, src.get());
+        }
+    }
+
+    /**
+     * <p>
+     * Copy a range of this memory into another memory.</p>
+     *
+     * @param index    the index of the first byte to copy.
+     * @param dst      the destination memory.
+     * @param dstIndex the index of the destination memory where to start.
+     * @param length   the amount of bytes to copy.
+     */
+    public void copyTo(int index, Memory dst, int dstIndex, int length) {
+        Objects.checkFromIndexSize(index, length, size());
+        Objects.checkFromIndexSize(dstIndex, length, dst.size());
+        if (dst.hasArray()) {
+            get(index, dst.array(), dstIndex, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                dst.put(dstIndex + i, get(index + i));
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Set every byte of a range of this memory to the same value.</p>
+     *
+     * @param index  the index of the first byte to set.
+     * @param length the amount of bytes to set.
+     * @param value  the value to be set.
+     */
+    public void fill(int index, int length, byte value) {
+        Objects.checkFromIndexSize(index, length, size());
+        for (int i = 0; i < length; i++) {
+            put(index + i, value);
+        }
+    }
+
+    /**
+     * <p>
+     * Get a short from this memory.</p>
+     *
+     * <p>
+     * The default implementation assembles the value byte by byte,
+     * implementations should override it with a single access whenever possible.
+     * </p>
+     *
+     * @param index the index of the first byte of the value.
+     * @param order the byte order of the value.
+     * @return the short at the provided index.
+     */
+    public short getShort(int index, ByteOrder order) {
+        return (short) read(index, Short.BYTES, order);
+    }
+
+    /**
+     * <p>
+     * Put a short at certain index in this memory.</p>
+     *
+     * @see #getShort(int, ByteOrder)
+     *
+     * @param index the index of the first byte of the value.
+     * @param value the value to be placed.
+     * @param order the byte order of the value.
+     */
+    public void putShort(int index, short value, ByteOrder order) {
+        write(index, value, Short.BYTES, order);
+    }
+
+    /**
+     * @see #getShort(int, ByteOrder)
+     *
+     * @param index the index of the first byte of the value.
+     * @param order the byte order of the value.
+     * @return the int at the provided index.
+     */
+    public int getInt(int index, ByteOrder order) {
+        return (int) read(index, Integer.BYTES, order);
+    }
+
+    /**
+     * @see #putShort(int, short, ByteOrder)
+     *
+     * @param index the index of the first byte of the value.
+     * @param value the value to be placed.
+     * @param order the byte order of the value.
+     */
+    public void putInt(int index, int value, ByteOrder order) {
+        write(index, value, Integer.BYTES, order);
+    }
+
+    /**
+     * @see #getShort(int, ByteOrder)
+     *
+     * @param index the index of the first byte of the value.
+     * @param order the byte order of the value.
+     * @return the long at the provided index.
+     */
+    public long getLong(int index, ByteOrder order) {
+        return read(index, Long.BYTES, order);
+    }
+
+    /**
+     * @see #putShort(int, short, ByteOrder)
+     *
+     * @param index the index of the first byte of the value.
+     * @param value the value to be placed.
+     * @param order the byte order of the value.
+     */
+    public void putLong(int index, long value, ByteOrder order) {
+        write(index, value, Long.BYTES, order);
+    }
+
+    private long read(int index, int bytes, ByteOrder order) {
+        Objects.checkFromIndexSize(index, bytes, size());
+        long value = 0;
+        if (order == ByteOrder.BIG_ENDIAN) {
+            for (int i = 0; i < bytes; i++) {
+                value = value << 8 | (get(index + i) & 0xFF);
+            }
+        } else {
+            for (int i = bytes - 1; i >= 0; i--) {
+                value = value << 8 | (get(index + i) & 0xFF);
+            }
+        }
+        return value;
+    }
+
+    private void write(int index, long value, int bytes, ByteOrder order) {
+        Objects.checkFromIndexSize(index, bytes, size());
+        if (order == ByteOrder.BIG_ENDIAN) {
+            for (int i = bytes - 1; i >= 0; i--, value >>= 8) {
+                put(index + i, (byte) value);
+            }
+        } else {
+            for (int i = 0; i < bytes; i++, value >>= 8) {
+                put(index + i, (byte) value);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Get a ByteBuffer view of a range of this memory.</p>
+     *
+     * <p>
+     * The view shares its content with this memory, nothing is copied. The
+     * returned buffer starts at position 0 and its capacity is {@code length}.
+     * It must not be used once this memory has been closed.
+     * </p>
+     *
+     * @param index  the index of the first byte of the view.
+     * @param length the amount of bytes of the view.
+     * @return the ByteBuffer view.
+     * @throws UnsupportedOperationException if this memory cannot be viewed as a ByteBuffer.
+     */
+    public ByteBuffer buffer(int index, int length) {
+        throw new UnsupportedOperationException("Memory cannot be viewed as a ByteBuffer");
+    }
+
+    /**
+     * <p>
+     * Verify if this memory can be viewed as a ByteBuffer.</p>
+     *
+     * @return true if {@link #buffer(int, int)} can be called, false otherwise.
+     */
+    public boolean hasBuffer() {
+        return false;
+    }
+
+    /**
+     * <p>
+     * Verify if this memory is backed by an accessible byte array.</p>
+     *
+     * @return true if {@link #array()} can be called, false otherwise.
+     */
+    public boolean hasArray() {
+        return false;
+    }
+
+    /**
+     * <p>
+     * Get the byte array backing this memory.</p>
+     *
+     * <p>
+     * Changes to the returned array are visible in this memory and vice versa.
+     * </p>
+     *
+     * @return the backing array.
+     * @throws UnsupportedOperationException if this memory is not backed by an array.
+     */
+    public byte[] array() {
+        throw new UnsupportedOperationException("Memory is not backed by an array");
+    }
+
     /**
      * <p>
      * Get the type of this memory.</p>
@@ -17,6 +17,24 @@ public interface MemoryPool extends AutoCloseable {
      */
     Memory get(MemoryAllocator allocator);
 
+    /**
+     * <p>Get a memory block of at least {@code size} bytes from the pool.</p>
+     * <p>The default implementation takes a block with {@link #get(MemoryAllocator)}
+     * and verifies it is big enough, pools serving several sizes should override it.</p>
+     * 
+     * @param allocator The allocator to use for allocating memory blocks.
+     * @param size      The minimum size in bytes of the memory block.
+     * @return          A memory block.
+     */
+    default Memory get(MemoryAllocator allocator, int size) {
+        Memory memory = get(allocator);
+        if (memory.size() < size) {
+            offer(memory);
+            throw new IllegalArgumentException("Memory block size is smaller than the requested size");
+        }
+        return memory;
+    }
+
     /**
      * <p>Return a memory block to the pool.</p>
      * 
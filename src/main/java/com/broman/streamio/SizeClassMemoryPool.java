@@ -0,0 +1,237 @@
+package com.broman.streamio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.broman.streamio.memory.MemoryType;
+
+/**
+ * <p>
+ * A thread-safe memory pool serving blocks of several sizes.</p>
+ *
+ * <p>
+ * Requests are rounded up to the smallest size class that can hold them, so
+ * streams with different block sizes can share one pool. Requests without a
+ * size are served from the smallest size class. Each size class
+ * keeps a separate free list for every memory type, which means heap and
+ * native blocks are served by the same pool without ever being mixed.
+ * </p>
+ *
+ * <p>
+ * Blocks are cleared when they are offered. Every size class counts its hits,
+ * requests served from the pool, and misses, requests that had to allocate.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class SizeClassMemoryPool implements MemoryPool {
+
+    /**
+     * <p>
+     * Create a pool whose size classes are the powers of two between
+     * {@code minSize} and {@code maxSize}, both rounded up to a power of two.</p>
+     *
+     * @param minSize the size in bytes of the smallest class.
+     * @param maxSize the size in bytes of the largest class.
+     * @return the memory pool.
+     */
+    public static SizeClassMemoryPool powersOfTwo(int minSize, int maxSize) {
+        if (minSize < 1 || minSize > maxSize || maxSize > 1 << 30) {
+            throw new IllegalArgumentException("Sizes must satisfy 0 < min <= max <= " + (1 << 30));
+        }
+        int min = roundUp(minSize);
+        int max = roundUp(maxSize);
+        int[] sizes = new int[Integer.numberOfTrailingZeros(max) - Integer.numberOfTrailingZeros(min) + 1];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = min << i;
+        }
+        return new SizeClassMemoryPool(sizes);
+    }
+
+    private static int roundUp(int size) {
+        return size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private final int[] sizes;
+    private final SizeClass[] classes;
+
+    /**
+     * @param sizes the size in bytes of each size class.
+     */
+    public SizeClassMemoryPool(int... sizes) {
+        if (sizes.length == 0) {
+            throw new IllegalArgumentException("At least one size class is required");
+        }
+        this.sizes = Arrays.stream(sizes).sorted().distinct().toArray();
+        if (this.sizes[0] < 1) {
+            throw new IllegalArgumentException("Size classes must be greater than 0");
+        }
+        this.classes = new SizeClass[this.sizes.length];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new SizeClass(this.sizes[i]);
+        }
+    }
+
+    /**
+     * @return the size in bytes of each size class, in ascending order.
+     */
+    public int[] sizes() {
+        return sizes.clone();
+    }
+
+    /**
+     * @param size the size in bytes of a size class.
+     * @return the amount of requests of this class served from the pool.
+     */
+    public long hits(int size) {
+        return classOf(size, true).hits.sum();
+    }
+
+    /**
+     * @param size the size in bytes of a size class.
+     * @return the amount of requests of this class that had to allocate.
+     */
+    public long misses(int size) {
+        return classOf(size, true).misses.sum();
+    }
+
+    /**
+     * @param size the size in bytes of a size class.
+     * @param type the type of the memory blocks.
+     * @return the amount of blocks of this class available in the pool.
+     */
+    public int available(int size, MemoryType type) {
+        return classOf(size, true).blocks.get(type.ordinal()).size();
+    }
+
+    public void reserve(int count, int size, MemoryAllocator allocator) {
+        SizeClass sizeClass = classOf(size, false);
+        Queue<Memory> blocks = sizeClass.blocks.get(allocator.getType().ordinal());
+        for (int i = 0; i < count; i++) {
+            blocks.add(allocator.allocate(sizeClass.size));
+        }
+    }
+
+    /**
+     * <p>
+     * Get a memory block of the smallest size class, see {@link #get(MemoryAllocator, int)}.</p>
+     */
+    @Override
+    public Memory get(MemoryAllocator allocator) {
+        return get(allocator, sizes[0]);
+    }
+
+    @Override
+    public Memory get(MemoryAllocator allocator, int size) {
+        SizeClass sizeClass = classOf(size, false);
+        Memory memory = sizeClass.blocks.get(allocator.getType().ordinal()).poll();
+
+        if (memory == null) {
+            sizeClass.misses.increment();
+            memory = allocator.allocate(sizeClass.size);
+        } else {
+            sizeClass.hits.increment();
+        }
+
+        checkMemory(memory);
+        memory.setCloseHandler((m) -> {
+            throw new RuntimeException("Memory block was not returned to pool");
+        });
+
+        return memory;
+    }
+
+    @Override
+    public void offer(Memory memory) {
+        checkMemory(memory);
+        SizeClass sizeClass = classOf(memory.size(), true);
+        memory.setCloseHandler(null);
+        // Clear memory
+        memory.fill(0, sizeClass.size, (byte) 0);
+        sizeClass.blocks.get(memory.getType().ordinal()).add(memory);
+    }
+
+    /**
+     * @param size  the size in bytes to look for.
+     * @param exact whether {@code size} must be a size class or may be rounded up.
+     * @return the size class.
+     */
+    private SizeClass classOf(int size, boolean exact) {
+        int index = Arrays.binarySearch(sizes, size);
+        if (index < 0) {
+            index = -index - 1;
+            if (exact || index == sizes.length) {
+                throw new IllegalArgumentException("No size class for memory blocks of " + size + " bytes");
+            }
+        }
+        return classes[index];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SizeClassMemoryPool(");
+        for (int i = 0; i < classes.length; i++) {
+            SizeClass sizeClass = classes[i];
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(sizeClass.size)
+                    .append("=[hits=").append(sizeClass.hits.sum())
+                    .append(", misses=").append(sizeClass.misses.sum())
+                    .append(']');
+        }
+        return builder.append(')').toString();
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (SizeClass sizeClass : classes) {
+                for (Queue<Memory> blocks : sizeClass.blocks) {
+                    Memory memory;
+                    while ((memory = blocks.poll()) != null) {
+                        memory.close();
+                    }
+                }
+            }
+        }
+        catch(Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private void checkMemory(Memory memory) {
+        if (memory == null) {
+            throw new IllegalArgumentException("Memory block is null");
+        }
+        if (memory.closed()) {
+            throw new IllegalArgumentException("Memory block is closed");
+        }
+    }
+
+    /**
+     * The free lists and counters of one block size.
+     */
+    private static final class SizeClass {
+
+        final int size;
+        final List<Queue<Memory>> blocks;
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        SizeClass(int size) {
+            this.size = size;
+            this.blocks = new ArrayList<>(MemoryType.values().length);
+            for (int i = 0; i < MemoryType.values().length; i++) {
+                blocks.add(new ConcurrentLinkedQueue<>());
+            }
+        }
+
+    }
+
+}
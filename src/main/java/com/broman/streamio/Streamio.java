@@ -1,18 +1,43 @@
 package com.broman.streamio;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.broman.streamio.memory.NativeMemory;
 import com.broman.streamio.memory.NativeMemoryAllocator;
+import com.broman.streamio.memory.ArenaMemoryAllocator;
 import com.broman.streamio.memory.HeapMemory;
 import com.broman.streamio.memory.HeapMemoryAllocator;
+import com.broman.streamio.memory.MappedMemoryAllocator;
+import com.broman.streamio.table.ConcurrentMemoryLookupTable;
 import com.broman.streamio.table.DynamicMemoryLookupTable;
+import com.broman.streamio.table.MappedMemoryLookupTable;
 import com.broman.streamio.table.MemoryLookupTable;
 import com.broman.streamio.table.SingleMemoryLookupTable;
 
 /**
+ * <p>
+ * A stream of bytes split in memory blocks allocated on demand.</p>
+ *
+ * <p>
+ * A stream keeps the last memory block it used in a {@link CachedMemory}.
+ * Streams created with {@link #concurrent(int, int, MemoryAllocator)} keep
+ * one per thread, other streams keep a single one and must be accessed by
+ * one thread at a time, unless every thread goes through its own
+ * {@link #accessor()} and no block is being allocated.
+ * </p>
+ *
  * @author Brayan Roman
  * @since  1.0.0
  */
@@ -20,12 +45,13 @@ public class Streamio implements IStreamio {
 
     private final static int MAX_SIZE = 1024 * 1024;
     private final static int MAX_BLOCK_SIZE = 1024;
+    private final static int STAGING_SIZE = 64 * 1024;
 
-    public static int blockIndexes(int size, int blockSize) {
+    public static int blockIndexes(long size, int blockSize) {
         if (size == 0) {
             return 1;
         } else {
-            return (int) Math.ceil((float) size / (float) blockSize);
+            return Math.toIntExact((size + blockSize - 1) / blockSize);
         }
     }
 
@@ -83,6 +109,97 @@ public class Streamio implements IStreamio {
         );
     }
 
+    /**
+     * <p>
+     * Create a stream backed by a file, which is created if it does not exist.</p>
+     *
+     * <p>
+     * Each block of the stream is a region of the file, mapped the first time
+     * it is written, or read if the file already reaches the region. Reading
+     * a region beyond the end of the file gives the default byte and neither
+     * maps it nor grows the file. Content written to the stream can be read
+     * again by mapping the same file, see {@link #force()} for durability.
+     * </p>
+     *
+     * @param path      the path of the file.
+     * @param size      the size in bytes of the stream.
+     * @param blockSize the size in bytes of each mapped region.
+     * @return the mapped stream.
+     */
+    public static Streamio mapped(Path path, int size, int blockSize) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedMemoryAllocator allocator = new MappedMemoryAllocator(channel);
+            if (blockSize > size) {
+                blockSize = size;
+            }
+            return new Streamio(size, blockSize, allocator, new MappedMemoryLookupTable(allocator, size, blockSize));
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * <p>
+     * Create a stream whose native memory blocks are carved out of slabs of
+     * up to {@value ArenaMemoryAllocator#DEFAULT_SLAB_SIZE} bytes.</p>
+     *
+     * <p>
+     * Closing the stream releases its slabs all at once instead of releasing
+     * each block, which makes it a good fit for short-lived streams. Arena
+     * streams cannot use a memory pool, as their blocks do not outlive them.
+     * </p>
+     *
+     * @see ArenaMemoryAllocator
+     *
+     * @param size      the size in bytes of the stream.
+     * @param blockSize the size in bytes of each memory block.
+     * @return the arena stream.
+     */
+    public static Streamio arena(int size, int blockSize) {
+        if (blockSize > size) {
+            blockSize = size;
+        }
+        long capacity = (long) blockIndexes(size, blockSize) * blockSize;
+        int slabSize = (int) Math.min(capacity, Math.max(blockSize, ArenaMemoryAllocator.DEFAULT_SLAB_SIZE / blockSize * blockSize));
+
+        Streamio streamio = new Streamio(
+                size,
+                blockSize,
+                new ArenaMemoryAllocator(slabSize),
+                new DynamicMemoryLookupTable(size, blockSize)
+        );
+        streamio.ownsAllocator = true;
+        return streamio;
+    }
+
+    /**
+     * <p>
+     * Create a stream that can be filled by several threads at the same time.</p>
+     *
+     * <p>
+     * Memory blocks are installed atomically in a {@link ConcurrentMemoryLookupTable},
+     * when two threads allocate the same block the loser releases its block
+     * to the memory pool (or closes it). Threads writing to the same bytes
+     * must still coordinate, and the memory pool in use must be thread-safe.
+     * </p>
+     *
+     * @param size      the size in bytes of the stream.
+     * @param blockSize the size in bytes of each memory block.
+     * @param allocator the allocator for the memory blocks, it must be thread-safe.
+     * @return the concurrent stream.
+     */
+    public static Streamio concurrent(int size, int blockSize, MemoryAllocator allocator) {
+        Streamio streamio = new Streamio(
+                size,
+                blockSize,
+                allocator,
+                new ConcurrentMemoryLookupTable(size, blockSize)
+        );
+        streamio.caches = ThreadLocal.withInitial(CachedMemory::new);
+        return streamio;
+    }
+
     public static Streamio wrap(byte[] bytes) {
         return new Streamio(bytes.length, bytes.length, null, new SingleMemoryLookupTable(new HeapMemory(bytes)));
     }
@@ -99,8 +216,15 @@ public class Streamio implements IStreamio {
     private final MemoryLookupTable table;
 
     private byte defaultByte = 0;
-    private CachedMemory cache = CachedMemory.NULL;
+    private ByteBuffer defaults;
+    // Copies blocks that cannot be viewed as a ByteBuffer in channel transfers
+    private final AtomicReference<ByteBuffer> staging = new AtomicReference<>();
+    private final CachedMemory cache = new CachedMemory();
+    private ThreadLocal<CachedMemory> caches;
     private MemoryPool pool;
+    private boolean ownsAllocator;
+    // Checked on every block lookup, cached blocks may belong to another stream once closed
+    private volatile boolean closed = false;
 
     Streamio(int size, int blockSize, MemoryAllocator allocator, MemoryLookupTable table) {
         if (blockSize > size) {
@@ -133,13 +257,45 @@ public class Streamio implements IStreamio {
     }
 
     public void useMemoryPool(MemoryPool pool) {
+        if (ownsAllocator && pool != null) {
+            throw new IllegalStateException("Arena streams cannot use a memory pool");
+        }
         this.pool = pool;
     }
 
+    /**
+     * <p>
+     * Write the content of this stream to the storage device backing its
+     * memory blocks, if any (see {@link #mapped(Path, int, int)}).</p>
+     */
+    public void force() {
+        table.force();
+    }
+
+    @Override
+    public byte defaultByte() {
+        return defaultByte;
+    }
+
+    @Override
+    public boolean closed() {
+        return closed;
+    }
+
+    @Override
+    public IStreamio accessor() {
+        return new Accessor(this);
+    }
+
     @Override
     public byte get(int index) {
+        return get(index, cache());
+    }
+
+    @Override
+    public byte get(int index, CachedMemory cache) {
         checkIndex(index);
-        Memory memory = findMemoryAt(index, false);
+        Memory memory = findMemoryAt(index, false, cache);
 
         if (memory == null) {
             return defaultByte;
@@ -148,6 +304,12 @@ public class Streamio implements IStreamio {
         }
     }
 
+    @Override
+    public Memory memoryAt(int index, boolean create, CachedMemory cache) {
+        checkIndex(index);
+        return findMemoryAt(index, create, cache);
+    }
+
     @Override
     public void put(int index, int value) {
         put(index, (byte) value);
@@ -155,27 +317,190 @@ public class Streamio implements IStreamio {
 
     @Override
     public void put(int index, byte[] value) {
-        for (int i = 0; i < value.length; i++) {
-            put(index + i, value[i]);
+        put(index, value, 0, value.length);
+    }
+
+    @Override
+    public void put(int index, byte[] value, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, value.length);
+        checkRange(index, length);
+        while (length > 0) {
+            Memory memory = blockAt(blockIndex(index), true);
+            int position = valueIndex(index);
+            int count = Math.min(length, blockSize - position);
+
+            memory.put(position, value, offset, count);
+            index += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void get(int index, byte[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        checkRange(index, length);
+        while (length > 0) {
+            Memory memory = blockAt(blockIndex(index), false);
+            int position = valueIndex(index);
+            int count = Math.min(length, blockSize - position);
+
+            if (memory == null) {
+                Arrays.fill(dst, offset, offset + count, defaultByte);
+            } else {
+                memory.get(position, dst, offset, count);
+            }
+            index += count;
+            offset += count;
+            length -= count;
         }
     }
 
     @Override
     public void put(int index, byte value) {
+        put(index, value, cache());
+    }
+
+    @Override
+    public void put(int index, byte value, CachedMemory cache) {
         checkIndex(index);
-        Memory memory = findMemoryAt(index, true);
+        Memory memory = findMemoryAt(index, true, cache);
         memory.put(valueIndex(index), value);
     }
 
     @Override
-    public byte[] array(int offset, int length) {
+    public short getShort(int index, ByteOrder order) {
+        return getShort(index, order, cache());
+    }
+
+    @Override
+    public void putShort(int index, short value, ByteOrder order) {
+        putShort(index, value, order, cache());
+    }
+
+    @Override
+    public int getInt(int index, ByteOrder order) {
+        return getInt(index, order, cache());
+    }
+
+    @Override
+    public void putInt(int index, int value, ByteOrder order) {
+        putInt(index, value, order, cache());
+    }
+
+    @Override
+    public long getLong(int index, ByteOrder order) {
+        return getLong(index, order, cache());
+    }
+
+    @Override
+    public void putLong(int index, long value, ByteOrder order) {
+        putLong(index, value, order, cache());
+    }
+
+    private short getShort(int index, ByteOrder order, CachedMemory cache) {
+        checkRange(index, Short.BYTES);
+        int position = valueIndex(index);
+        if (position > blockSize - Short.BYTES) {
+            return (short) read(index, Short.BYTES, order, cache);
+        }
+        Memory memory = findMemoryAt(index, false, cache);
+        return memory == null ? (short) defaultValue() : memory.getShort(position, order);
+    }
+
+    private void putShort(int index, short value, ByteOrder order, CachedMemory cache) {
+        checkRange(index, Short.BYTES);
+        int position = valueIndex(index);
+        if (position > blockSize - Short.BYTES) {
+            write(index, value, Short.BYTES, order, cache);
+        } else {
+            findMemoryAt(index, true, cache).putShort(position, value, order);
+        }
+    }
+
+    private int getInt(int index, ByteOrder order, CachedMemory cache) {
+        checkRange(index, Integer.BYTES);
+        int position = valueIndex(index);
+        if (position > blockSize - Integer.BYTES) {
+            return (int) read(index, Integer.BYTES, order, cache);
+        }
+        Memory memory = findMemoryAt(index, false, cache);
+        return memory == null ? (int) defaultValue() : memory.getInt(position, order);
+    }
+
+    private void putInt(int index, int value, ByteOrder order, CachedMemory cache) {
+        checkRange(index, Integer.BYTES);
+        int position = valueIndex(index);
+        if (position > blockSize - Integer.BYTES) {
+            write(index, value, Integer.BYTES, order, cache);
+        } else {
+            findMemoryAt(index, true, cache).putInt(position, value, order);
+        }
+    }
+
+    private long getLong(int index, ByteOrder order, CachedMemory cache) {
+        checkRange(index, Long.BYTES);
+        int position = valueIndex(index);
+        if (position > blockSize - Long.BYTES) {
+            return read(index, Long.BYTES, order, cache);
+        }
+        Memory memory = findMemoryAt(index, false, cache);
+        return memory == null ? defaultValue() : memory.getLong(position, order);
+    }
+
+    private void putLong(int index, long value, ByteOrder order, CachedMemory cache) {
+        checkRange(index, Long.BYTES);
+        int position = valueIndex(index);
+        if (position > blockSize - Long.BYTES) {
+            write(index, value, Long.BYTES, order, cache);
+        } else {
+            findMemoryAt(index, true, cache).putLong(position, value, order);
+        }
+    }
+
+    /**
+     * Assemble a value crossing a block boundary byte by byte.
+     */
+    private long read(int index, int bytes, ByteOrder order, CachedMemory cache) {
+        long value = 0;
+        if (order == ByteOrder.BIG_ENDIAN) {
+            for (int i = 0; i < bytes; i++) {
+                value = value << 8 | (get(index + i, cache) & 0xFF);
+            }
+        } else {
+            for (int i = bytes - 1; i >= 0; i--) {
+                value = value << 8 | (get(index + i, cache) & 0xFF);
+            }
+        }
+        return value;
+    }
+
+    private void write(int index, long value, int bytes, ByteOrder order, CachedMemory cache) {
+        if (order == ByteOrder.BIG_ENDIAN) {
+            for (int i = bytes - 1; i >= 0; i--, value >>= 8) {
+                put(index + i, (byte) value, cache);
+            }
+        } else {
+            for (int i = 0; i < bytes; i++, value >>= 8) {
+                put(index + i, (byte) value, cache);
+            }
+        }
+    }
+
+    /**
+     * @return a value whose bytes are all the default byte.
+     */
+    private long defaultValue() {
+        return (defaultByte & 0xFFL) * 0x0101010101010101L;
+    }
+
+    @Override
+    public byte[] array(int offset, int end) {
         checkIndex(offset);
-        checkIndex(length);
+        checkIndex(end);
         try {
-            byte[] content = new byte[(length + 1) - offset];
-            for (int i = 0; i < content.length; i++) {
-                content[i] = get(offset + i);
-            }
+            byte[] content = new byte[(end + 1) - offset];
+            get(offset, content, 0, content.length);
             return content;
         } catch (NegativeArraySizeException exception) {
             throw new NegativeArraySizeException("Array length should be greater than offset"); 
@@ -183,40 +508,321 @@ public class Streamio implements IStreamio {
     }
 
     @Override
-    public void writeTo(ByteBuffer buffer, int offset, int length) {
+    public void writeTo(ByteBuffer buffer, int offset, int end) {
         checkIndex(offset);
-        checkIndex(offset + length);
-        if (offset == length) {
-            throw new IllegalArgumentException("offset == length");
+        checkIndex(end);
+        if (offset == end) {
+            throw new IllegalArgumentException("offset == end");
         }
-        if (offset > length) {
-            throw new IllegalArgumentException("offset > length");
+        if (offset > end) {
+            throw new IllegalArgumentException("offset > end");
         }
-        if (buffer.remaining() >= length) {
-            while (offset <= length) {
-                buffer.put(get(offset++));
-            }
-        } else {
+
+        int count = (end + 1) - offset;
+        if (buffer.remaining() < count) {
             throw new IllegalArgumentException("There is not enough space for write in the provided buffer.");
         }
+
+        while (count > 0) {
+            Memory memory = blockAt(blockIndex(offset), false);
+            int position = valueIndex(offset);
+            int span = Math.min(count, blockSize - position);
+
+            if (memory == null) {
+                fill(buffer, span, defaultByte);
+            } else {
+                memory.get(position, buffer, span);
+            }
+            offset += span;
+            count -= span;
+        }
     }
 
     @Override
-    public void writeTo(OutputStream stream, int offset, int length) {
+    public void writeTo(OutputStream stream, int offset, int end) {
         checkIndex(offset);
-        checkIndex(offset + length);
-        if (offset == length) {
-            throw new IllegalArgumentException("offset == length");
+        checkIndex(end);
+        if (offset == end) {
+            throw new IllegalArgumentException("offset == end");
+        }
+        if (offset > end) {
+            throw new IllegalArgumentException("offset > end");
+        }
+
+        int count = (end + 1) - offset;
+        byte[] chunk = null;
+        try {
+            while (count > 0) {
+                Memory memory = blockAt(blockIndex(offset), false);
+                int position = valueIndex(offset);
+                int span = Math.min(count, blockSize - position);
+
+                if (memory != null && memory.hasArray()) {
+                    // Heap blocks are written straight from their backing array
+                    stream.write(memory.array(), position, span);
+                } else {
+                    if (chunk == null) {
+                        chunk = new byte[Math.min(blockSize, count)];
+                    }
+                    if (memory == null) {
+                        Arrays.fill(chunk, 0, span, defaultByte);
+                    } else {
+                        memory.get(position, chunk, 0, span);
+                    }
+                    stream.write(chunk, 0, span);
+                }
+                offset += span;
+                count -= span;
+            }
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public long writeTo(GatheringByteChannel channel, int offset, int length) {
+        checkRange(offset, length);
+        if (length == 0) {
+            return 0;
+        }
+
+        ByteBuffer[] buffers = new ByteBuffer[blockIndexes((long) valueIndex(offset) + length, blockSize)];
+        ByteBuffer staging = null;
+        try {
+            long written = 0;
+            int count = 0;
+            int batch = 0;
+            int index = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                Memory memory = blockAt(blockIndex(index), false);
+                int position = valueIndex(index);
+                int span = Math.min(remaining, blockSize - position);
+
+                ByteBuffer buffer;
+                if (memory == null) {
+                    buffer = defaults().slice(0, span);
+                } else if (memory.hasBuffer()) {
+                    buffer = memory.buffer(position, span);
+                } else {
+                    // The block has no view, copy it through the staging buffer
+                    if (staging == null) {
+                        staging = takeStaging();
+                    } else if (staging.remaining() < span) {
+                        long result = write(channel, buffers, count);
+                        written += result;
+                        if (result < batch) {
+                            return written;
+                        }
+                        staging.clear();
+                        count = 0;
+                        batch = 0;
+                    }
+                    buffer = staging.slice(staging.position(), span);
+                    memory.get(position, buffer, span);
+                    buffer.flip();
+                    staging.position(staging.position() + span);
+                }
+                buffers[count++] = buffer;
+                batch += span;
+                index += span;
+                remaining -= span;
+            }
+            return written + write(channel, buffers, count);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        } finally {
+            if (staging != null) {
+                this.staging.set(staging);
+            }
         }
-        if (offset > length) {
-            throw new IllegalArgumentException("offset > length");
+    }
+
+    @Override
+    public long readFrom(ScatteringByteChannel channel, int offset, int length) {
+        checkRange(offset, length);
+        if (length == 0) {
+            return 0;
         }
+
+        int blocks = blockIndexes((long) valueIndex(offset) + length, blockSize);
+        ByteBuffer[] buffers = new ByteBuffer[blocks];
+        // The blocks read through the staging buffer and where in them, null for views
+        Memory[] staged = new Memory[blocks];
+        int[] positions = new int[blocks];
+        ByteBuffer staging = null;
         try {
-            while (offset <= length) {
-                stream.write(get(offset++));
+            long read = 0;
+            int count = 0;
+            int batch = 0;
+            int index = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                Memory memory = blockAt(blockIndex(index), true);
+                int position = valueIndex(index);
+                int span = Math.min(remaining, blockSize - position);
+
+                if (memory.hasBuffer()) {
+                    buffers[count] = memory.buffer(position, span);
+                    staged[count] = null;
+                } else {
+                    // The block has no view, fill it through the staging buffer
+                    if (staging == null) {
+                        staging = takeStaging();
+                    } else if (staging.remaining() < span) {
+                        long result = read(channel, buffers, staged, positions, count);
+                        read += result;
+                        if (result < batch) {
+                            return read;
+                        }
+                        staging.clear();
+                        count = 0;
+                        batch = 0;
+                    }
+                    buffers[count] = staging.slice(staging.position(), span);
+                    staged[count] = memory;
+                    positions[count] = position;
+                    staging.position(staging.position() + span);
+                }
+                count++;
+                batch += span;
+                index += span;
+                remaining -= span;
             }
+            return read + read(channel, buffers, staged, positions, count);
         } catch (IOException exception) {
             throw new RuntimeException(exception);
+        } finally {
+            if (staging != null) {
+                this.staging.set(staging);
+            }
+        }
+    }
+
+    @Override
+    public int readFrom(InputStream stream, int offset, int length) {
+        checkRange(offset, length);
+
+        int read = 0;
+        byte[] chunk = null;
+        try {
+            while (read < length) {
+                Memory memory = blockAt(blockIndex(offset), true);
+                int position = valueIndex(offset);
+                int span = Math.min(length - read, blockSize - position);
+                int result;
+
+                if (memory.hasArray()) {
+                    // Heap blocks are filled straight from the stream
+                    result = stream.read(memory.array(), position, span);
+                } else {
+                    if (chunk == null) {
+                        chunk = new byte[Math.min(blockSize, length)];
+                    }
+                    result = stream.read(chunk, 0, span);
+                    if (result > 0) {
+                        memory.put(position, chunk, 0, result);
+                    }
+                }
+
+                if (result < 0) {
+                    break;
+                }
+                offset += result;
+                read += result;
+            }
+            return read;
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * <p>
+     * Write buffers to a channel until they are all written or the channel
+     * stops accepting bytes.</p>
+     *
+     * @return the amount of bytes written.
+     */
+    private static long write(GatheringByteChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+        long written = 0;
+        int first = 0;
+        while (first < count) {
+            long result = channel.write(buffers, first, count - first);
+            if (result <= 0) {
+                break;
+            }
+            written += result;
+            while (first < count && !buffers[first].hasRemaining()) {
+                first++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * <p>
+     * Read from a channel into buffers until they are all full or the channel
+     * has no more bytes, then copy the staged buffers into their blocks.</p>
+     *
+     * @return the amount of bytes read.
+     */
+    private static long read(ScatteringByteChannel channel, ByteBuffer[] buffers, Memory[] staged, int[] positions, int count) throws IOException {
+        long read = 0;
+        int first = 0;
+        while (first < count) {
+            long result = channel.read(buffers, first, count - first);
+            if (result <= 0) {
+                break;
+            }
+            read += result;
+            while (first < count && !buffers[first].hasRemaining()) {
+                first++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (staged[i] != null && buffers[i].position() > 0) {
+                int filled = buffers[i].position();
+                staged[i].put(positions[i], buffers[i].flip(), filled);
+            }
+        }
+        return read;
+    }
+
+    /**
+     * <p>
+     * Take the staging buffer, which holds at least one block, or allocate
+     * one if another transfer holds it.</p>
+     */
+    private ByteBuffer takeStaging() {
+        ByteBuffer buffer = staging.getAndSet(null);
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(Math.max(blockSize, STAGING_SIZE));
+        }
+        return buffer.clear();
+    }
+
+    private ByteBuffer defaults() {
+        if (defaults == null || defaults.get(0) != defaultByte) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(blockSize);
+            while (buffer.hasRemaining()) {
+                buffer.put(defaultByte);
+            }
+            defaults = buffer.clear().asReadOnlyBuffer();
+        }
+        return defaults;
+    }
+
+    private static void fill(ByteBuffer buffer, int count, byte value) {
+        if (buffer.hasArray()) {
+            int position = buffer.position();
+            int start = buffer.arrayOffset() + position;
+            Arrays.fill(buffer.array(), start, start + count, value);
+            buffer.position(position + count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer.put(value);
+            }
         }
     }
 
@@ -226,6 +832,12 @@ public class Streamio implements IStreamio {
         }
     }
 
+    private void checkRange(int index, int length) {
+        if (index < 0 || length < 0 || index > size - length) {
+            throw new IndexOutOfBoundsException("range (" + index + ", " + length + ") is out of bounds. (0 - " + size + ")");
+        }
+    }
+
     private int blockIndex(int index) {
         if (index < blockSize) {
             return 0;
@@ -242,63 +854,253 @@ public class Streamio implements IStreamio {
         }
     }
 
-    private Memory findMemoryAt(int index, boolean create) {
-        Memory memory = cache.get(index);
+    private CachedMemory cache() {
+        return caches == null ? cache : caches.get();
+    }
+
+    private Memory findMemoryAt(int index, boolean create, CachedMemory cache) {
+        if (closed) {
+            throw new IllegalStateException("Stream is closed");
+        }
+        Memory memory = cache.get(this, index);
 
         if (memory == null) {
             int blockIndex = blockIndex(index);
 
-            memory = table.getAt(blockIndex);
-            if (memory == null) {
-                if (create && allocator != null) {
-                    if (pool == null) {
-                        memory = table.setAt(blockIndex, allocator.allocate(blockSize));
-                    } else {
-                        memory = table.setAt(blockIndex, pool.get(allocator));
-                    }
-                }
+            memory = blockAt(blockIndex, create);
+            if (memory != null) {
+                cache.set(this, memory, blockIndex, blockSize);
             }
+        }
 
-            if (memory != null) {
-                cache = CachedMemory.of(memory, index, blockSize);
+        return memory;
+    }
+
+    /**
+     * Look for a memory block in the table without going through any cache,
+     * bulk operations resolve each block once so they do not need one.
+     */
+    private Memory blockAt(int blockIndex, boolean create) {
+        if (closed) {
+            throw new IllegalStateException("Stream is closed");
+        }
+        Memory memory = table.getAt(blockIndex);
+
+        if (memory == null && create) {
+            memory = table.createAt(blockIndex);
+        }
+        if (memory == null) {
+            if (create && allocator != null) {
+                Memory block = pool == null ? allocator.allocate(blockSize) : pool.get(allocator, blockSize);
+
+                memory = table.setIfAbsent(blockIndex, block);
+                if (memory != block) {
+                    // Another thread installed the block first
+                    release(block);
+                }
             }
         }
 
         return memory;
     }
 
+    private void release(Memory memory) {
+        if (pool == null) {
+            memory.close();
+        } else {
+            pool.offer(memory);
+        }
+    }
+
     @Override
     public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
         try {
-            table.offer(pool);
+            if (pool != null) {
+                table.offer(pool);
+            }
             table.close();
+            if (ownsAllocator) {
+                ((AutoCloseable) allocator).close();
+            }
         } catch (Exception exception) {
             throw new RuntimeException(exception);
         } finally {
-            cache = CachedMemory.NULL;
+            cache.clear();
         }
     }
 
-    public record CachedMemory(Memory memory, int min, int max) {
-        static CachedMemory NULL = of(null, -1, -1);
+    @Override
+    public String toString() {
+        return "Streamio(pool=" + pool + ", closed=" + closed + ")";
+    }
+
+    /**
+     * A view of a stream with its own memory block cache.
+     */
+    private static final class Accessor implements IStreamio {
 
-        static CachedMemory of(Memory memory, int ind, int bsz) {
-            int min = ind * bsz;
-            int max = min + bsz;
-            return new CachedMemory(memory, min, max);
+        private final Streamio streamio;
+        private final CachedMemory cache = new CachedMemory();
+
+        Accessor(Streamio streamio) {
+            this.streamio = streamio;
         }
 
-        public Memory get(int ind) {
-            if (ind >= min && ind < max) {
-                return memory;
-            }
-            return null;
+        @Override
+        public MemoryAllocator allocator() {
+            return streamio.allocator();
+        }
+
+        @Override
+        public int size() {
+            return streamio.size();
+        }
+
+        @Override
+        public int blockSize() {
+            return streamio.blockSize();
+        }
+
+        @Override
+        public void defaultByte(byte value) {
+            streamio.defaultByte(value);
+        }
+
+        @Override
+        public byte defaultByte() {
+            return streamio.defaultByte();
+        }
+
+        @Override
+        public boolean closed() {
+            return streamio.closed();
+        }
+
+        @Override
+        public IStreamio accessor() {
+            return streamio.accessor();
+        }
+
+        @Override
+        public byte get(int index) {
+            return streamio.get(index, cache);
+        }
+
+        @Override
+        public byte get(int index, CachedMemory cache) {
+            return streamio.get(index, cache);
+        }
+
+        @Override
+        public Memory memoryAt(int index, boolean create, CachedMemory cache) {
+            return streamio.memoryAt(index, create, cache);
+        }
+
+        @Override
+        public void put(int index, byte value) {
+            streamio.put(index, value, cache);
+        }
+
+        @Override
+        public void put(int index, byte value, CachedMemory cache) {
+            streamio.put(index, value, cache);
+        }
+
+        @Override
+        public void put(int index, int value) {
+            streamio.put(index, (byte) value, cache);
+        }
+
+        @Override
+        public void put(int index, byte[] value) {
+            streamio.put(index, value);
+        }
+
+        @Override
+        public short getShort(int index, ByteOrder order) {
+            return streamio.getShort(index, order, cache);
+        }
+
+        @Override
+        public void putShort(int index, short value, ByteOrder order) {
+            streamio.putShort(index, value, order, cache);
+        }
+
+        @Override
+        public int getInt(int index, ByteOrder order) {
+            return streamio.getInt(index, order, cache);
+        }
+
+        @Override
+        public void putInt(int index, int value, ByteOrder order) {
+            streamio.putInt(index, value, order, cache);
+        }
+
+        @Override
+        public long getLong(int index, ByteOrder order) {
+            return streamio.getLong(index, order, cache);
+        }
+
+        @Override
+        public void putLong(int index, long value, ByteOrder order) {
+            streamio.putLong(index, value, order, cache);
+        }
+
+        @Override
+        public void put(int index, byte[] value, int offset, int length) {
+            streamio.put(index, value, offset, length);
+        }
+
+        @Override
+        public void get(int index, byte[] dst, int offset, int length) {
+            streamio.get(index, dst, offset, length);
+        }
+
+        @Override
+        public byte[] array(int offset, int end) {
+            return streamio.array(offset, end);
+        }
+
+        @Override
+        public void writeTo(ByteBuffer buffer, int offset, int end) {
+            streamio.writeTo(buffer, offset, end);
+        }
+
+        @Override
+        public void writeTo(OutputStream stream, int offset, int end) {
+            streamio.writeTo(stream, offset, end);
+        }
+
+        @Override
+        public long writeTo(GatheringByteChannel channel, int offset, int length) {
+            return streamio.writeTo(channel, offset, length);
+        }
+
+        @Override
+        public long readFrom(ScatteringByteChannel channel, int offset, int length) {
+            return streamio.readFrom(channel, offset, length);
+        }
+
+        @Override
+        public int readFrom(InputStream stream, int offset, int length) {
+            return streamio.readFrom(stream, offset, length);
+        }
+
+        @Override
+        public void close() {
+            // The stream belongs to its creator, only forget the cached block
+            cache.clear();
+        }
+
+        @Override
+        public String toString() {
+            return "Streamio.Accessor(" + streamio + ")";
         }
-    }
 
-    @Override
-    public String toString() {
-        return "Streamio(pool=" + pool + ")";
     }
 
 }
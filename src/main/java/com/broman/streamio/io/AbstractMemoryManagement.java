@@ -1,14 +1,28 @@
 package com.broman.streamio.io;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.broman.streamio.CachedMemory;
+import com.broman.streamio.IStreamio;
+import com.broman.streamio.io.encoding.BlockIntEncoding;
 import com.broman.streamio.io.encoding.IntEncoding;
 import com.broman.streamio.serialization.SerializationRegistry;
 
 public abstract class AbstractMemoryManagement implements MemoryManagement {
 
+    public final static int DEFAULT_DICTIONARY_SIZE = 256;
+
     protected MemoryIndex index;
     protected IntEncoding encoding;
+    protected BlockIntEncoding blockEncoding;
     protected SerializationRegistry serializers;
 
+    private final CachedMemory block = new CachedMemory();
+    private final MemoryCursor cursor = new MemoryCursor();
+    private int dictionarySize = DEFAULT_DICTIONARY_SIZE;
+    private StringDictionary dictionary;
+
     public AbstractMemoryManagement() {
         this(new MemoryIndex(0), MemoryEncoding.BIG_ENDIAN);
     }
@@ -37,6 +51,7 @@ public abstract class AbstractMemoryManagement implements MemoryManagement {
             throw new NullPointerException("Encoding cannot be null");
         }
         this.encoding = encoding;
+        this.blockEncoding = encoding instanceof BlockIntEncoding block ? block : null;
     }
 
     @Override
@@ -44,6 +59,101 @@ public abstract class AbstractMemoryManagement implements MemoryManagement {
         return encoding;
     }
 
+    /**
+     * <p>
+     * Point the cursor at {@code index} when the block encoding can work
+     * directly on the memory block holding it.</p>
+     *
+     * @param streamio the stream to look into.
+     * @param index    the index of the value.
+     * @param bytes    the size in bytes of the value type.
+     * @param create   whether to allocate the memory block if it does not exist.
+     * @return the cursor, or null if the value must go through the stream.
+     */
+    protected MemoryCursor cursor(IStreamio streamio, MemoryIndex index, int bytes, boolean create) {
+        if (blockEncoding == null) {
+            return null;
+        }
+        return block(streamio, index.get(), blockEncoding.maxBytes(bytes), create);
+    }
+
+    /**
+     * <p>
+     * Point the cursor at {@code position} when the memory block holding it
+     * has at least {@code needed} bytes from there.</p>
+     *
+     * @param streamio the stream to look into.
+     * @param position the index of the stream.
+     * @param needed   the amount of bytes needed.
+     * @param create   whether to allocate the memory block if it does not exist.
+     * @return the cursor, or null if the bytes must go through the stream.
+     */
+    protected MemoryCursor block(IStreamio streamio, int position, int needed, boolean create) {
+        return cursor.seek(streamio, block, position, needed, create) ? cursor : null;
+    }
+
+    /**
+     * <p>
+     * Get a view of the memory block at the current index for a run of fixed
+     * width values, and move the index past them.</p>
+     *
+     * @param streamio the stream to look into.
+     * @param count    the maximum amount of values of the run.
+     * @param bytes    the size in bytes of each value.
+     * @param create   whether to allocate the memory block if it does not exist.
+     * @return the view in the order of the encoding, or null if the next value
+     * must go through the encoding.
+     */
+    protected ByteBuffer run(IStreamio streamio, int count, int bytes, boolean create) {
+        ByteOrder order = blockEncoding == null ? null : blockEncoding.order();
+        if (order == null) {
+            return null;
+        }
+        MemoryCursor cursor = block(streamio, index.get(), bytes, create);
+        if (cursor == null || !cursor.memory().hasBuffer()) {
+            return null;
+        }
+        int length = Math.min(count, cursor.remaining() / bytes) * bytes;
+        ByteBuffer run = cursor.memory().buffer(cursor.inc(length), length).order(order);
+        index.set(cursor.index());
+        return run;
+    }
+
+    /**
+     * <p>
+     * Get the dictionary of strings, created on first use.</p>
+     *
+     * @param indexed whether strings must be looked up by value.
+     * @return the dictionary.
+     */
+    protected StringDictionary dictionary(boolean indexed) {
+        if (dictionary == null) {
+            dictionary = new StringDictionary(dictionarySize, indexed);
+        }
+        return dictionary;
+    }
+
+    @Override
+    public int getDictionarySize() {
+        return dictionarySize;
+    }
+
+    @Override
+    public void setDictionarySize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Dictionary size cannot be negative");
+        }
+        this.dictionarySize = size;
+        this.dictionary = null;
+    }
+
+    @Override
+    public void resetDictionary() {
+        if (dictionary != null) {
+            dictionary.clear();
+        }
+    }
+
     @Override
     public SerializationRegistry getSerializers() {
         return serializers;
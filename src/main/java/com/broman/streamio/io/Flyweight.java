@@ -0,0 +1,232 @@
+package com.broman.streamio.io;
+
+import java.nio.ByteOrder;
+
+import com.broman.streamio.CachedMemory;
+import com.broman.streamio.IStreamio;
+import com.broman.streamio.Memory;
+
+/**
+ * <p>
+ * A reusable accessor of a fixed layout message.</p>
+ *
+ * <p>
+ * A flyweight is pointed at the offset of a message with
+ * {@link #wrap(IStreamio, int)}, and subclasses read each field at its fixed
+ * offset within the message, which must lie within {@link #length()}. Nothing
+ * is copied or allocated, so decoding a feed of messages in steady state
+ * allocates nothing at all. When the whole
+ * message is held by a single memory block, which is the common case, the
+ * fields are read from the block with no stream lookups.
+ * </p>
+ *
+ * <p>
+ * The layout is the one of the fixed width encodings, so messages written
+ * with {@link MemoryWriter#writeLong(long)}, {@link MemoryWriter#writeInt(int)}
+ * and alike under {@link MemoryEncoding#BIG_ENDIAN} or
+ * {@link MemoryEncoding#LITTLE_ENDIAN} can be read by a flyweight of the same
+ * byte order.
+ * </p>
+ *
+ * <pre>{@code
+ *     final class Quote extends Flyweight {
+ *         public int length() {
+ *             return 20;
+ *         }
+ *         public long instrument() {
+ *             return getLong(0);
+ *         }
+ *         public double price() {
+ *             return getDouble(8);
+ *         }
+ *         public int size() {
+ *             return getInt(16);
+ *         }
+ *     }
+ *
+ *     Quote quote = new Quote();
+ *     for (int i = 0; i < count; i++) {
+ *         reader.readFlyweight(quote);
+ *         volume += quote.size();
+ *     }
+ * }</pre>
+ *
+ * <p>
+ * A flyweight is not thread-safe, each thread should hold its own.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ * @see    MemoryReader#readFlyweight(Flyweight)
+ */
+public abstract class Flyweight {
+
+    private final ByteOrder order;
+    private final MemoryCursor cursor = new MemoryCursor();
+    private final CachedMemory block = new CachedMemory();
+
+    private IStreamio streamio;
+    private int offset;
+    // The block holding the whole message and where the message starts in it, or null
+    private Memory memory;
+    private int position;
+
+    /**
+     * <p>
+     * A flyweight of big endian messages.</p>
+     */
+    protected Flyweight() {
+        this(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * @param order the byte order of the messages.
+     */
+    protected Flyweight(ByteOrder order) {
+        if (order == null) {
+            throw new NullPointerException("Byte order cannot be null");
+        }
+        this.order = order;
+    }
+
+    /**
+     * @return the size in bytes of a message.
+     */
+    public abstract int length();
+
+    /**
+     * <p>
+     * Point this flyweight at a message.</p>
+     *
+     * @param streamio the stream holding the message.
+     * @param offset   the index where the message starts.
+     * @return this flyweight.
+     */
+    public Flyweight wrap(IStreamio streamio, int offset) {
+        if (streamio == null) {
+            throw new NullPointerException("Streamio cannot be null");
+        }
+        if (offset < 0) {
+            throw new IndexOutOfBoundsException("Offset cannot be negative");
+        }
+        if (streamio != this.streamio) {
+            // The cursor points into a block of the previous stream
+            cursor.set(null, 0, 0, 0);
+            this.streamio = streamio;
+        }
+        this.offset = offset;
+        if (cursor.seek(streamio, block, offset, length(), false)) {
+            this.memory = cursor.memory();
+            this.position = cursor.offset();
+        } else {
+            // Crosses blocks or is not allocated, go through the stream
+            this.memory = null;
+        }
+        return this;
+    }
+
+    /**
+     * <p>
+     * Point this flyweight at the message right after the current one.</p>
+     *
+     * @return this flyweight.
+     */
+    public Flyweight next() {
+        return wrap(streamio(), offset + length());
+    }
+
+    /**
+     * @return the stream holding the message.
+     */
+    public IStreamio streamio() {
+        if (streamio == null) {
+            throw new IllegalStateException("Flyweight is not wrapped");
+        }
+        return streamio;
+    }
+
+    /**
+     * @return the index where the message starts.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * @return the byte order of the messages.
+     */
+    public ByteOrder order() {
+        return order;
+    }
+
+    protected byte getByte(int field) {
+        Memory memory = block();
+        return memory != null ? memory.get(position + field) : streamio().get(offset + field);
+    }
+
+    protected boolean getBoolean(int field) {
+        return getByte(field) != 0;
+    }
+
+    protected short getShort(int field) {
+        Memory memory = block();
+        return memory != null ? memory.getShort(position + field, order) : streamio().getShort(offset + field, order);
+    }
+
+    protected char getChar(int field) {
+        return (char) getShort(field);
+    }
+
+    protected int getInt(int field) {
+        Memory memory = block();
+        return memory != null ? memory.getInt(position + field, order) : streamio().getInt(offset + field, order);
+    }
+
+    protected long getLong(int field) {
+        Memory memory = block();
+        return memory != null ? memory.getLong(position + field, order) : streamio().getLong(offset + field, order);
+    }
+
+    protected float getFloat(int field) {
+        return Float.intBitsToFloat(getInt(field));
+    }
+
+    protected double getDouble(int field) {
+        return Double.longBitsToDouble(getLong(field));
+    }
+
+    /**
+     * <p>
+     * Copy the bytes of a field, such as a fixed length symbol.</p>
+     *
+     * @param field  the offset of the field within the message.
+     * @param dst    the array to copy the bytes to.
+     * @param offset the index of the array to copy the bytes to.
+     * @param length the amount of bytes to copy.
+     */
+    protected void getBytes(int field, byte[] dst, int offset, int length) {
+        Memory memory = block();
+        if (memory != null) {
+            memory.get(position + field, dst, offset, length);
+        } else {
+            streamio().get(this.offset + field, dst, offset, length);
+        }
+    }
+
+    /**
+     * @return the block holding the whole message, or null if the fields must go through the stream.
+     */
+    private Memory block() {
+        if (memory != null && streamio.closed()) {
+            // The block may belong to another stream by now
+            throw new IllegalStateException("Stream is closed");
+        }
+        return memory;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(offset=" + offset + ", length=" + length() + ")";
+    }
+
+}
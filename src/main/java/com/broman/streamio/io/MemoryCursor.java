@@ -0,0 +1,155 @@
+package com.broman.streamio.io;
+
+import com.broman.streamio.CachedMemory;
+import com.broman.streamio.IStreamio;
+import com.broman.streamio.Memory;
+
+/**
+ * <p>
+ * A position within a resolved memory block.</p>
+ *
+ * <p>
+ * Block encodings read and write through a cursor instead of a stream,
+ * so a value held by a single block costs no stream lookups at all.
+ * The cursor is reused for every value and never allocates.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ * @see    com.broman.streamio.io.encoding.BlockIntEncoding
+ */
+public final class MemoryCursor {
+
+    private Memory memory;
+    private int base;
+    private int offset;
+    private int limit;
+
+    /**
+     * <p>
+     * Point this cursor at a memory block.</p>
+     *
+     * @param memory the memory block.
+     * @param base   the index of the stream where the block starts.
+     * @param offset the index of the block where the cursor starts.
+     * @param limit  the index of the block where the usable bytes end (exclusive).
+     */
+    public void set(Memory memory, int base, int offset, int limit) {
+        this.memory = memory;
+        this.base = base;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * <p>
+     * Move this cursor to an index of the stream, if the block holds the
+     * next {@code bytes} bytes from there.</p>
+     *
+     * @param index the index of the stream.
+     * @param bytes the amount of bytes needed.
+     * @return true if the cursor was moved, false otherwise.
+     */
+    public boolean seek(int index, int bytes) {
+        int target = index - base;
+        if (memory == null || target < 0 || target > limit - bytes) {
+            return false;
+        }
+        this.offset = target;
+        return true;
+    }
+
+    /**
+     * <p>
+     * Move this cursor to an index of a stream, if the memory block holding
+     * it has the next {@code bytes} bytes from there, looking the block up
+     * when it is not the current one.</p>
+     *
+     * @param streamio the stream to look into.
+     * @param cache    the cache of the accessor.
+     * @param index    the index of the stream.
+     * @param bytes    the amount of bytes needed.
+     * @param create   whether to allocate the memory block if it does not exist.
+     * @return true if the cursor was moved, false if the bytes must go through the stream.
+     * @throws IllegalStateException if the stream is closed.
+     */
+    public boolean seek(IStreamio streamio, CachedMemory cache, int index, int bytes, boolean create) {
+        if (streamio.closed()) {
+            // The current block may belong to another stream by now
+            throw new IllegalStateException("Stream is closed");
+        }
+        if (seek(index, bytes)) {
+            // Still within the current block
+            return true;
+        }
+        Memory block = streamio.memoryAt(index, create, cache);
+        if (block == null) {
+            return false;
+        }
+        int start = cache.min();
+        int end = Math.min(cache.max(), streamio.size()) - start;
+        if (end - (index - start) < bytes) {
+            // The bytes cross the end of the block
+            return false;
+        }
+        set(block, start, index - start, end);
+        return true;
+    }
+
+    /**
+     * @return the memory block.
+     */
+    public Memory memory() {
+        return memory;
+    }
+
+    /**
+     * @return the current index within the memory block.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * @return the amount of bytes left before the end of the block.
+     */
+    public int remaining() {
+        return limit - offset;
+    }
+
+    /**
+     * @return the current index within the stream.
+     */
+    public int index() {
+        return base + offset;
+    }
+
+    /**
+     * <p>
+     * Increments the offset by one.</p>
+     *
+     * @return the offset before the increment.
+     */
+    public int inc() {
+        return offset++;
+    }
+
+    /**
+     * <p>
+     * Increments the offset by {@code count}.</p>
+     *
+     * @param count the amount to increment the offset by.
+     * @return the offset before the increment.
+     */
+    public int inc(int count) {
+        int current = offset;
+        offset += count;
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryCursor(base=" + base + ", offset=" + offset + ", limit=" + limit + ")";
+    }
+
+}
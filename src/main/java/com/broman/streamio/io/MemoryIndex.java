@@ -34,6 +34,19 @@ public final class MemoryIndex implements Cloneable {
         return index++;
     }
 
+    /**
+     * <p>
+     * Increments the index by {@code count}.</p>
+     * 
+     * @param count the amount to increment the index by.
+     * @return the index before the increment.
+     */
+    public int inc(int count) {
+        int current = index;
+        index += count;
+        return current;
+    }
+
     /**
      * <p>
      * Decrements the index by one.</p>
@@ -59,5 +59,35 @@ public interface MemoryManagement {
      * @param serializers The new serialization registry of the memory.
      */
     void setSerializers(SerializationRegistry serializers);
+
+    /**
+     * <p>
+     * Gets the maximum amount of strings of the dictionary.</p>
+     * 
+     * @return The maximum amount of strings of the dictionary.
+     */
+    int getDictionarySize();
+
+    /**
+     * <p>
+     * Sets the maximum amount of strings of the dictionary, clearing it.</p>
+     * 
+     * <p>
+     * Note: Dictionary strings must be read with the same dictionary size
+     * they were written with. A size of 0 writes every string in full.</p>
+     * 
+     * @param size The new maximum amount of strings of the dictionary.
+     */
+    void setDictionarySize(int size);
+
+    /**
+     * <p>
+     * Clears the dictionary.</p>
+     * 
+     * <p>
+     * Note: Readers must reset at the same point of the memory as the writer,
+     * which makes the strings after that point readable on their own.</p>
+     */
+    void resetDictionary();
     
 }
@@ -234,6 +234,54 @@ public interface MemoryReader extends MemoryManagement {
      */
     String readByteString(MemoryIndex index);
 
+    /**
+     * <p>
+     * Reads a UTF-8 string from the memory.</p>
+     * 
+     * <p>
+     * Note: The string is read as written by {@link MemoryWriter#writeUtf8(String)}.</p>
+     * 
+     * @return The string read from the memory.
+     */
+    String readUtf8();
+
+    /**
+     * <p>
+     * Reads a UTF-8 string from the memory at the specified index.</p>
+     * 
+     * <p>
+     * Note: The string is read as written by {@link MemoryWriter#writeUtf8(String)}.</p>
+     * 
+     * @param index The index to read the string from.
+     * @return The string read from the memory.
+     */
+    String readUtf8(MemoryIndex index);
+
+    /**
+     * <p>
+     * Reads a string from the memory through the dictionary.</p>
+     * 
+     * <p>
+     * Note: The string is read as written by {@link MemoryWriter#writeDictionaryString(String)},
+     * repeated strings are the same instance.</p>
+     * 
+     * @return The string read from the memory.
+     */
+    String readDictionaryString();
+
+    /**
+     * <p>
+     * Reads a string from the memory through the dictionary at the specified index.</p>
+     * 
+     * <p>
+     * Note: The string is read as written by {@link MemoryWriter#writeDictionaryString(String)},
+     * repeated strings are the same instance.</p>
+     * 
+     * @param index The index to read the string from.
+     * @return The string read from the memory.
+     */
+    String readDictionaryString(MemoryIndex index);
+
     /**
      * <p>
      * Reads a byte array from the memory.</p>
@@ -253,6 +301,245 @@ public interface MemoryReader extends MemoryManagement {
      */
     byte[] readBytes(MemoryIndex index, int length);
 
+    /**
+     * <p>
+     * Reads shorts from the memory into a range of an array.</p>
+     * 
+     * <p>
+     * Each value is decoded as {@link #readShort()} would do.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readShorts(short[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads ints from the memory into a range of an array.</p>
+     * 
+     * <p>
+     * Each value is decoded as {@link #readInt()} would do.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readInts(int[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads longs from the memory into a range of an array.</p>
+     * 
+     * <p>
+     * Each value is decoded as {@link #readLong()} would do.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readLongs(long[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads floats from the memory into a range of an array.</p>
+     * 
+     * <p>
+     * Each value is decoded as {@link #readFloat()} would do.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readFloats(float[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads doubles from the memory into a range of an array.</p>
+     * 
+     * <p>
+     * Each value is decoded as {@link #readDouble()} would do.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readDoubles(double[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads ints as varints from the memory into an array.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param length The amount of values to read.
+     */
+    void readVarInts(int[] dst, int length);
+
+    /**
+     * <p>
+     * Reads ints as varints from the memory into a range of an array.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readVarInts(int[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads ints as zigzag encoded varints from the memory into an array.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param length The amount of values to read.
+     */
+    void readZigZagInts(int[] dst, int length);
+
+    /**
+     * <p>
+     * Reads ints as zigzag encoded varints from the memory into a range of an array.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readZigZagInts(int[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads longs as varints from the memory into an array.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param length The amount of values to read.
+     */
+    void readVarLongs(long[] dst, int length);
+
+    /**
+     * <p>
+     * Reads longs as varints from the memory into a range of an array.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readVarLongs(long[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads longs as zigzag encoded varints from the memory into an array.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param length The amount of values to read.
+     */
+    void readZigZagLongs(long[] dst, int length);
+
+    /**
+     * <p>
+     * Reads longs as zigzag encoded varints from the memory into a range of an array.</p>
+     * 
+     * @param dst    The array to read the values into.
+     * @param offset The index of the array where to put the first value.
+     * @param length The amount of values to read.
+     */
+    void readZigZagLongs(long[] dst, int offset, int length);
+
+    /**
+     * <p>
+     * Reads an int written as a varint, whatever the encoding is.</p>
+     * 
+     * @return The int read from the memory.
+     */
+    int readVarInt();
+
+    /**
+     * <p>
+     * Reads a long written as a varint, whatever the encoding is.</p>
+     * 
+     * @return The long read from the memory.
+     */
+    long readVarLong();
+
+    /**
+     * <p>
+     * Reads an int written as 4 little endian bytes, whatever the encoding is.</p>
+     * 
+     * @return The int read from the memory.
+     */
+    int readFixed32();
+
+    /**
+     * <p>
+     * Reads a long written as 8 little endian bytes, whatever the encoding is.</p>
+     * 
+     * @return The long read from the memory.
+     */
+    long readFixed64();
+
+    /**
+     * <p>
+     * Reads the tag of a field.</p>
+     * 
+     * @return The tag, or {@link WireFormat#END} at the end of a message.
+     */
+    int readTag();
+
+    /**
+     * <p>
+     * Skips the value of a field without decoding it.</p>
+     * 
+     * @param tag The tag of the field, as returned by {@link #readTag()}.
+     */
+    void skipField(int tag);
+
+    /**
+     * <p>
+     * Reads a record written between {@link MemoryWriter#startRecord()} and
+     * {@link MemoryWriter#endRecord(int)}.</p>
+     * 
+     * <p>
+     * The fields are not decoded, the reader moves past the record and the
+     * fields are decoded by the returned view when asked for.</p>
+     * 
+     * @return A view of the record.
+     */
+    RecordView readRecord();
+
+    /**
+     * <p>
+     * Reads a record into an existing view, see {@link #readRecord()}.</p>
+     * 
+     * @param view The view to point at the record.
+     * @return     The view.
+     */
+    RecordView readRecord(RecordView view);
+
+    /**
+     * <p>
+     * Skips a record without decoding it.</p>
+     */
+    void skipRecord();
+
+    /**
+     * <p>
+     * Points a flyweight at the message at the current index, and moves the
+     * index past the message.</p>
+     * 
+     * @param flyweight The flyweight to point at the message.
+     * @return          The flyweight.
+     */
+    <F extends Flyweight> F readFlyweight(F flyweight);
+
     /**
      * <p>
      * Reads an object from the memory.</p>
@@ -272,4 +559,40 @@ public interface MemoryReader extends MemoryManagement {
      */
     <T> T readObject(ObjectSerializer<T> serializer);
 
+    /**
+     * <p>
+     * Reads an object from the memory, preceded by its type id.</p>
+     * 
+     * <p>
+     * The object is read as written by {@link MemoryWriter#writeTypedObject(Object)}.</p>
+     * 
+     * @return The object read from the memory.
+     */
+    Object readTypedObject();
+
+    /**
+     * <p>
+     * Reads an object graph from the memory.</p>
+     * 
+     * <p>
+     * The graph is read as written by {@link MemoryWriter#writeGraph(Object)},
+     * objects referenced several times are the same instance.</p>
+     * 
+     * @return The root of the graph, or null.
+     */
+    Object readGraph();
+
+    /**
+     * <p>
+     * Makes the object being read available to references before it is fully read.</p>
+     * 
+     * <p>
+     * Serializers that create the object before reading its fields call this
+     * right after creating it, so objects in a cycle can refer back to it.
+     * Outside of {@link #readGraph()} this does nothing.</p>
+     * 
+     * @param object The object being read.
+     */
+    void reference(Object object);
+
 }
@@ -234,6 +234,60 @@ public interface MemoryWriter extends MemoryManagement {
      */
     void writeByteString(MemoryIndex index, String value);
 
+    /**
+     * <p>
+     * Writes a string to the memory as UTF-8.</p>
+     * 
+     * <p>
+     * Note: The string is written as a varint with its length in bytes,
+     * followed by its UTF-8 bytes. Unpaired surrogates are written as '?'.</p>
+     * 
+     * @param value The string to write to the memory.
+     */
+    void writeUtf8(String value);
+
+    /**
+     * <p>
+     * Writes a string to the memory as UTF-8 at the specified index.</p>
+     * 
+     * <p>
+     * Note: The string is written as a varint with its length in bytes,
+     * followed by its UTF-8 bytes. Unpaired surrogates are written as '?'.</p>
+     * 
+     * @param index The index to write the string to.
+     * @param value The string to write to the memory.
+     */
+    void writeUtf8(MemoryIndex index, String value);
+
+    /**
+     * <p>
+     * Writes a string to the memory through the dictionary.</p>
+     * 
+     * <p>
+     * Note: The first time, the string is written in full as
+     * {@link #writeUtf8(String)} does and added to the dictionary. After that,
+     * and until it is evicted or the dictionary is reset, only its id is written.</p>
+     * 
+     * @param value The string to write to the memory.
+     * @throws NullPointerException if the string is null, nothing is written then.
+     */
+    void writeDictionaryString(String value);
+
+    /**
+     * <p>
+     * Writes a string to the memory through the dictionary at the specified index.</p>
+     * 
+     * <p>
+     * Note: The first time, the string is written in full as
+     * {@link #writeUtf8(String)} does and added to the dictionary. After that,
+     * and until it is evicted or the dictionary is reset, only its id is written.</p>
+     * 
+     * @param index The index to write the string to.
+     * @param value The string to write to the memory.
+     * @throws NullPointerException if the string is null, nothing is written then.
+     */
+    void writeDictionaryString(MemoryIndex index, String value);
+
     /**
      * <p>
      * Writes a byte array to the memory.</p>
@@ -251,6 +305,244 @@ public interface MemoryWriter extends MemoryManagement {
      */
     void writeBytes(MemoryIndex index, byte[] value);
 
+    /**
+     * <p>
+     * Writes a range of an array of shorts to the memory.</p>
+     * 
+     * <p>
+     * Each value is encoded as {@link #writeShort(short)} would do.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeShorts(short[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes a range of an array of ints to the memory.</p>
+     * 
+     * <p>
+     * Each value is encoded as {@link #writeInt(int)} would do.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeInts(int[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes a range of an array of longs to the memory.</p>
+     * 
+     * <p>
+     * Each value is encoded as {@link #writeLong(long)} would do.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeLongs(long[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes a range of an array of floats to the memory.</p>
+     * 
+     * <p>
+     * Each value is encoded as {@link #writeFloat(float)} would do.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeFloats(float[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes a range of an array of doubles to the memory.</p>
+     * 
+     * <p>
+     * Each value is encoded as {@link #writeDouble(double)} would do.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeDoubles(double[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes an array of ints as varints to the memory.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param values The values to write to the memory.
+     */
+    void writeVarInts(int[] values);
+
+    /**
+     * <p>
+     * Writes a range of an array of ints as varints to the memory.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeVarInts(int[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes an array of ints as zigzag encoded varints to the memory.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param values The values to write to the memory.
+     */
+    void writeZigZagInts(int[] values);
+
+    /**
+     * <p>
+     * Writes a range of an array of ints as zigzag encoded varints to the memory.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeZigZagInts(int[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes an array of longs as varints to the memory.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param values The values to write to the memory.
+     */
+    void writeVarLongs(long[] values);
+
+    /**
+     * <p>
+     * Writes a range of an array of longs as varints to the memory.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeVarLongs(long[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes an array of longs as zigzag encoded varints to the memory.</p>
+     * 
+     * <p>
+     * The values are always varints, whatever the current encoding is.</p>
+     * 
+     * @param values The values to write to the memory.
+     */
+    void writeZigZagLongs(long[] values);
+
+    /**
+     * <p>
+     * Writes a range of an array of longs as zigzag encoded varints to the memory.</p>
+     * 
+     * @param values The values to write to the memory.
+     * @param offset The index of the first value to write.
+     * @param length The amount of values to write.
+     */
+    void writeZigZagLongs(long[] values, int offset, int length);
+
+    /**
+     * <p>
+     * Writes an int as a varint to the memory, whatever the encoding is.</p>
+     * 
+     * @param value The int to write to the memory, negative values take 5 bytes.
+     */
+    void writeVarInt(int value);
+
+    /**
+     * <p>
+     * Writes a long as a varint to the memory, whatever the encoding is.</p>
+     * 
+     * @param value The long to write to the memory, negative values take 10 bytes.
+     */
+    void writeVarLong(long value);
+
+    /**
+     * <p>
+     * Writes an int as 4 little endian bytes to the memory, whatever the encoding is.</p>
+     * 
+     * @param value The int to write to the memory.
+     */
+    void writeFixed32(int value);
+
+    /**
+     * <p>
+     * Writes a long as 8 little endian bytes to the memory, whatever the encoding is.</p>
+     * 
+     * @param value The long to write to the memory.
+     */
+    void writeFixed64(long value);
+
+    /**
+     * <p>
+     * Writes the tag of a field to the memory.</p>
+     * 
+     * @param field    The field number, from 1.
+     * @param wireType The wire type of the value that follows, see {@link WireFormat}.
+     */
+    void writeTag(int field, int wireType);
+
+    /**
+     * <p>
+     * Writes the tag ending a message to the memory.</p>
+     */
+    void writeEndTag();
+
+    /**
+     * <p>
+     * Starts a length delimited field, such as a nested message.</p>
+     * 
+     * <p>
+     * The tag is written and room is kept for the length, which is written
+     * by {@link #endLengthDelimited(int)} once the value is written.</p>
+     * 
+     * @param field The field number, from 1.
+     * @return      The mark to end the field with.
+     */
+    int startLengthDelimited(int field);
+
+    /**
+     * <p>
+     * Ends a length delimited field.</p>
+     * 
+     * @param mark The mark returned by {@link #startLengthDelimited(int)}.
+     */
+    void endLengthDelimited(int mark);
+
+    /**
+     * <p>
+     * Starts a record, a length prefixed frame of fields.</p>
+     * 
+     * <p>
+     * Room is kept for the length, which is written by {@link #endRecord(int)}
+     * once the fields are written. The record can then be read lazily, see
+     * {@link MemoryReader#readRecord()}, or skipped without decoding it.</p>
+     * 
+     * @return The mark to end the record with.
+     */
+    int startRecord();
+
+    /**
+     * <p>
+     * Ends a record.</p>
+     * 
+     * @param mark The mark returned by {@link #startRecord()}.
+     */
+    void endRecord(int mark);
+
     /**
      * <p>
      * Writes an object to the memory.</p>
@@ -271,4 +563,31 @@ public interface MemoryWriter extends MemoryManagement {
      */
     <T> void writeObject(T value, ObjectSerializer<T> serializer);
 
+    /**
+     * <p>
+     * Writes an object to the memory, preceded by its type id.</p>
+     * 
+     * <p>
+     * The type id and the object serializer will be provided by the current
+     * {@link SerializationRegistry}, so the object can be read back without
+     * knowing its type, see {@link MemoryReader#readTypedObject()}.</p>
+     * 
+     * @param value The object to write to the memory.
+     */
+    void writeTypedObject(Object value);
+
+    /**
+     * <p>
+     * Writes an object graph to the memory.</p>
+     * 
+     * <p>
+     * While the graph is written, {@link #writeObject(Object)} accepts null,
+     * and writes each object with its type id the first time and a reference
+     * to it after that, so shared objects are written once and cyclic graphs
+     * end. Type ids are provided by the current {@link SerializationRegistry}.</p>
+     * 
+     * @param value The root of the graph, or null.
+     */
+    void writeGraph(Object value);
+
 }
@@ -0,0 +1,430 @@
+package com.broman.streamio.io;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.broman.streamio.CachedMemory;
+import com.broman.streamio.IStreamio;
+import com.broman.streamio.io.encoding.VarInt;
+
+/**
+ * <p>
+ * A lazy view of a record written in the {@link WireFormat}.</p>
+ *
+ * <p>
+ * Nothing is decoded until a field is asked for. The fields are then scanned
+ * up to the one asked for, skipping values by their wire type alone, and the
+ * offset of each field found is kept, so no field is scanned twice. Values are
+ * decoded straight from the stream, the rest of the record is never read.
+ * </p>
+ *
+ * <p>
+ * Fields that are not in the record read as 0, false or null, see
+ * {@link #has(int)}. If a field appears several times, the first one is used.
+ * A view can be reused for another record with
+ * {@link MemoryReader#readRecord(RecordView)}, without allocating.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ * @see    MemoryWriter#startRecord()
+ */
+public final class RecordView {
+
+    private final static VarInt VARINT = new VarInt();
+    // Field numbers from the data are not trusted, only the small ones index arrays
+    private final static int DENSE_FIELDS = 256;
+
+    private final MemoryIndex index = new MemoryIndex(0);
+    private final MemoryCursor cursor = new MemoryCursor();
+    private final CachedMemory block = new CachedMemory();
+    private IStreamio streamio;
+    private int start;
+    private int end;
+    // Where the scan stopped, every field before it is known
+    private int scanned;
+
+    // By field number below DENSE_FIELDS: the offset of the value, its tag, and the record they belong to
+    private int[] offsets = new int[16];
+    private int[] tags = new int[16];
+    private int[] generations = new int[16];
+    private int generation;
+    // Larger field numbers, in an open addressing table created on first use
+    private int[] sparseFields;
+    private int[] sparseOffsets;
+    private int[] sparseTags;
+    private int[] sparseGenerations;
+    private int sparseCount;
+    // The tag of the last field found
+    private int tag;
+
+    /**
+     * <p>
+     * Point this view at a record.</p>
+     *
+     * @param streamio the stream holding the record.
+     * @param offset   the index where the fields of the record start.
+     * @param length   the length in bytes of the fields.
+     * @return this view.
+     */
+    public RecordView set(IStreamio streamio, int offset, int length) {
+        if (streamio == null) {
+            throw new NullPointerException("Streamio cannot be null");
+        }
+        if (offset < 0 || length < 0 || length > streamio.size() - offset) {
+            throw new IllegalArgumentException("Invalid record at " + offset + " of " + length + " bytes");
+        }
+        if (streamio != this.streamio) {
+            // The cursor points into a block of the previous stream
+            cursor.set(null, 0, 0, 0);
+            this.streamio = streamio;
+        }
+        this.start = offset;
+        this.end = offset + length;
+        this.scanned = offset;
+        this.sparseCount = 0;
+        if (++generation == 0) {
+            // Wrapped around, forget every field
+            Arrays.fill(generations, 0);
+            if (sparseGenerations != null) {
+                Arrays.fill(sparseGenerations, 0);
+            }
+            generation = 1;
+        }
+        return this;
+    }
+
+    /**
+     * @return the index where the fields of the record start.
+     */
+    public int offset() {
+        return start;
+    }
+
+    /**
+     * @return the length in bytes of the fields of the record.
+     */
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * @param field the field number.
+     * @return true if the record has the field, false otherwise.
+     */
+    public boolean has(int field) {
+        return find(field) != -1;
+    }
+
+    /**
+     * @param field the field number.
+     * @return the wire type of the field, or -1 if the record does not have it.
+     */
+    public int wireType(int field) {
+        return find(field) == -1 ? -1 : WireFormat.wireType(tag);
+    }
+
+    public int getVarInt(int field) {
+        int offset = value(field, WireFormat.VARINT);
+        return offset == -1 ? 0 : varInt(offset);
+    }
+
+    public long getVarLong(int field) {
+        int offset = value(field, WireFormat.VARINT);
+        return offset == -1 ? 0 : varLong(offset);
+    }
+
+    public boolean getBoolean(int field) {
+        return getVarLong(field) != 0;
+    }
+
+    public int getFixed32(int field) {
+        int offset = value(field, WireFormat.FIXED32);
+        if (offset == -1) {
+            return 0;
+        }
+        if (cursor.seek(streamio, block, offset, Integer.BYTES, false)) {
+            return cursor.memory().getInt(cursor.offset(), ByteOrder.LITTLE_ENDIAN);
+        }
+        return streamio.getInt(offset, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public long getFixed64(int field) {
+        int offset = value(field, WireFormat.FIXED64);
+        if (offset == -1) {
+            return 0;
+        }
+        if (cursor.seek(streamio, block, offset, Long.BYTES, false)) {
+            return cursor.memory().getLong(cursor.offset(), ByteOrder.LITTLE_ENDIAN);
+        }
+        return streamio.getLong(offset, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public float getFloat(int field) {
+        return Float.intBitsToFloat(getFixed32(field));
+    }
+
+    public double getDouble(int field) {
+        return Double.longBitsToDouble(getFixed64(field));
+    }
+
+    /**
+     * @param field the field number.
+     * @return the length in bytes of a length delimited field, or -1 if the record does not have it.
+     */
+    public int getLength(int field) {
+        int offset = value(field, WireFormat.LENGTH_DELIMITED);
+        return offset == -1 ? -1 : length(field, offset);
+    }
+
+    /**
+     * @param field the field number.
+     * @return the string written with {@link MemoryWriter#writeUtf8(String)}, or null.
+     */
+    public String getUtf8(int field) {
+        int offset = value(field, WireFormat.LENGTH_DELIMITED);
+        if (offset == -1) {
+            return null;
+        }
+        int length = length(field, offset);
+        if (cursor.seek(streamio, block, index.get(), length, false) && cursor.memory().hasArray()) {
+            // Decode straight from the block
+            return new String(cursor.memory().array(), cursor.offset(), length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        streamio.get(index.get(), bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param field the field number.
+     * @return a view of the nested record, or null.
+     */
+    public RecordView getRecord(int field) {
+        return getRecord(field, new RecordView());
+    }
+
+    /**
+     * @param field the field number.
+     * @param view  the view to point at the nested record.
+     * @return the view, or null if the record does not have the field.
+     */
+    public RecordView getRecord(int field, RecordView view) {
+        int offset = value(field, WireFormat.LENGTH_DELIMITED);
+        if (offset == -1) {
+            return null;
+        }
+        int length = length(field, offset);
+        return view.set(streamio, index.get(), length);
+    }
+
+    /**
+     * @return the offset of the value of the field, or -1 if the record does not have it.
+     */
+    private int value(int field, int wireType) {
+        int offset = find(field);
+        if (offset != -1 && WireFormat.wireType(tag) != wireType) {
+            throw new IllegalStateException("Field " + field + " has wire type " + WireFormat.wireType(tag) + ", not " + wireType);
+        }
+        return offset;
+    }
+
+    /**
+     * @return the offset of the value of the field, or -1 if the record does not have it.
+     */
+    private int find(int field) {
+        if (streamio == null) {
+            throw new IllegalStateException("View is not set");
+        }
+        if (field < 1 || field > WireFormat.MAX_FIELD) {
+            throw new IllegalArgumentException("Field number must be between 1 and " + WireFormat.MAX_FIELD);
+        }
+        int known = known(field);
+        if (known != -1) {
+            return known;
+        }
+
+        while (scanned < end) {
+            int tag = varInt(scanned);
+            int number = WireFormat.field(tag);
+            int offset = index.get();
+            scanned = skip(tag, offset);
+            if (scanned > end) {
+                throw new IllegalStateException("Field " + number + " crosses the end of the record");
+            }
+            if (number == 0) {
+                throw new IllegalStateException("Invalid field number 0 in record at " + start);
+            }
+            remember(number, tag, offset);
+            if (number == field) {
+                return known(field);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the offset of the value of a field already scanned, or -1.
+     */
+    private int known(int field) {
+        if (field < DENSE_FIELDS) {
+            if (field < generations.length && generations[field] == generation) {
+                tag = tags[field];
+                return offsets[field];
+            }
+            return -1;
+        }
+        if (sparseFields == null) {
+            return -1;
+        }
+        int mask = sparseFields.length - 1;
+        for (int slot = hash(field) & mask; sparseGenerations[slot] == generation; slot = (slot + 1) & mask) {
+            if (sparseFields[slot] == field) {
+                tag = sparseTags[slot];
+                return sparseOffsets[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <p>
+     * Keep the offset of a field, unless an earlier one has the same number.</p>
+     */
+    private void remember(int field, int tag, int offset) {
+        if (field < DENSE_FIELDS) {
+            if (field >= generations.length) {
+                grow(field);
+            }
+            if (generations[field] != generation) {
+                generations[field] = generation;
+                offsets[field] = offset;
+                tags[field] = tag;
+            }
+            return;
+        }
+        if (sparseFields == null) {
+            rehash(16);
+        } else if ((sparseCount + 1) * 4 > sparseFields.length * 3) {
+            rehash(sparseFields.length * 2);
+        }
+        int mask = sparseFields.length - 1;
+        int slot = hash(field) & mask;
+        for (; sparseGenerations[slot] == generation; slot = (slot + 1) & mask) {
+            if (sparseFields[slot] == field) {
+                return;
+            }
+        }
+        sparseFields[slot] = field;
+        sparseOffsets[slot] = offset;
+        sparseTags[slot] = tag;
+        sparseGenerations[slot] = generation;
+        sparseCount++;
+    }
+
+    /**
+     * @return the offset right after the value.
+     */
+    private int skip(int tag, int offset) {
+        switch (WireFormat.wireType(tag)) {
+            case WireFormat.VARINT -> {
+                varLong(offset);
+                return index.get();
+            }
+            case WireFormat.FIXED64 -> {
+                return offset + Long.BYTES;
+            }
+            case WireFormat.FIXED32 -> {
+                return offset + Integer.BYTES;
+            }
+            case WireFormat.LENGTH_DELIMITED -> {
+                int length = length(WireFormat.field(tag), offset);
+                return index.get() + length;
+            }
+            default -> throw new IllegalArgumentException("Unknown wire type " + WireFormat.wireType(tag));
+        }
+    }
+
+    /**
+     * <p>
+     * Read the length of a length delimited value, leaving the index right
+     * after it, and verify the value ends within the record.</p>
+     */
+    private int length(int field, int offset) {
+        int length = varInt(offset);
+        if (length < 0 || length > end - index.get()) {
+            throw new IllegalStateException("Field " + field + " of " + (length & 0xFFFFFFFFL) + " bytes crosses the end of the record");
+        }
+        return length;
+    }
+
+    /**
+     * <p>
+     * Read a varint at an offset, leaving the index right after it.</p>
+     */
+    private int varInt(int offset) {
+        if (cursor.seek(streamio, block, offset, 5, false)) {
+            int value = VARINT.readVarInt(cursor);
+            index.set(cursor.index());
+            return value;
+        }
+        index.set(offset);
+        return VARINT.readVarInt(streamio, index);
+    }
+
+    /**
+     * <p>
+     * Read a varint at an offset, leaving the index right after it.</p>
+     */
+    private long varLong(int offset) {
+        if (cursor.seek(streamio, block, offset, 10, false)) {
+            long value = VARINT.readVarLong(cursor);
+            index.set(cursor.index());
+            return value;
+        }
+        index.set(offset);
+        return VARINT.readVarLong(streamio, index);
+    }
+
+    private void grow(int field) {
+        int size = Math.min(Math.max(field + 1, generations.length * 2), DENSE_FIELDS);
+        offsets = Arrays.copyOf(offsets, size);
+        tags = Arrays.copyOf(tags, size);
+        generations = Arrays.copyOf(generations, size);
+    }
+
+    /**
+     * <p>
+     * Resize the table of large field numbers, keeping the fields of the current record.</p>
+     */
+    private void rehash(int capacity) {
+        int[] fields = sparseFields;
+        int[] offsets = sparseOffsets;
+        int[] tags = sparseTags;
+        int[] generations = sparseGenerations;
+        sparseFields = new int[capacity];
+        sparseOffsets = new int[capacity];
+        sparseTags = new int[capacity];
+        sparseGenerations = new int[capacity];
+        sparseCount = 0;
+        if (fields != null) {
+            for (int i = 0; i < fields.length; i++) {
+                if (generations[i] == generation) {
+                    remember(fields[i], tags[i], offsets[i]);
+                }
+            }
+        }
+    }
+
+    private static int hash(int field) {
+        int hash = field * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordView(offset=" + start + ", length=" + (end - start) + ")";
+    }
+
+}
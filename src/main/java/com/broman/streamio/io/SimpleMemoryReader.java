@@ -1,7 +1,15 @@
 package com.broman.streamio.io;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 import com.broman.streamio.IStreamio;
 import com.broman.streamio.io.encoding.IntEncoding;
+import com.broman.streamio.io.encoding.VarInt;
 import com.broman.streamio.serialization.ObjectSerializer;
 
 /**
@@ -12,7 +20,17 @@ import com.broman.streamio.serialization.ObjectSerializer;
  * @since  1.0
  */
 public class SimpleMemoryReader extends AbstractMemoryManagement implements MemoryReader {
+
+    private final static VarInt VARINT = new VarInt();
+    // Graph tags, odd ones are references
+    private final static int NULL = 0;
+    private final static Object UNRESOLVED = new Object();
+
     private IStreamio streamio;
+    // Objects of the graph being read by handle, null outside of a graph
+    private List<Object> references;
+    // Handle of the object being read, until it is created
+    private int pending = -1;
 
     public SimpleMemoryReader(IStreamio streamio) {
         this(streamio, new MemoryIndex(0), MemoryEncoding.BIG_ENDIAN);
@@ -27,7 +45,8 @@ public class SimpleMemoryReader extends AbstractMemoryManagement implements Memo
         if (streamio == null) {
             throw new NullPointerException("Streamio cannot be null");
         }
-        this.streamio = streamio;
+        // Each reader and writer keeps its own hot memory block
+        this.streamio = streamio.accessor();
     }
 
     @Override
@@ -42,76 +61,124 @@ public class SimpleMemoryReader extends AbstractMemoryManagement implements Memo
 
     @Override
     public short readShort() {
-        return encoding.getSInt16(streamio, index);
+        return readShort(index);
     }
 
     @Override
     public short readShort(MemoryIndex index) {
-        return encoding.getSInt16(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Short.BYTES, false);
+        if (cursor == null) {
+            return encoding.getSInt16(streamio, index);
+        }
+        short value = blockEncoding.getSInt16(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     public short readUShort() {
-        return encoding.getUInt16(streamio, index);
+        return readUShort(index);
     }
 
     public short readUShort(MemoryIndex index) {
-        return encoding.getUInt16(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Short.BYTES, false);
+        if (cursor == null) {
+            return encoding.getUInt16(streamio, index);
+        }
+        short value = blockEncoding.getUInt16(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     @Override
     public int readMedium() {
-        return encoding.getSInt24(streamio, index);
+        return readMedium(index);
     }
 
     @Override
     public int readMedium(MemoryIndex index) {
-        return encoding.getSInt24(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, 3, false);
+        if (cursor == null) {
+            return encoding.getSInt24(streamio, index);
+        }
+        int value = blockEncoding.getSInt24(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     public int readUMedium() {
-        return encoding.getUInt24(streamio, index);
+        return readUMedium(index);
     }
 
     public int readUMedium(MemoryIndex index) {
-        return encoding.getUInt24(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, 3, false);
+        if (cursor == null) {
+            return encoding.getUInt24(streamio, index);
+        }
+        int value = blockEncoding.getUInt24(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     @Override
     public int readInt() {
-        return encoding.getSInt32(streamio, index);
+        return readInt(index);
     }
 
     @Override
     public int readInt(MemoryIndex index) {
-        return encoding.getSInt32(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Integer.BYTES, false);
+        if (cursor == null) {
+            return encoding.getSInt32(streamio, index);
+        }
+        int value = blockEncoding.getSInt32(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     public int readUInt() {
-        return encoding.getUInt32(streamio, index);
+        return readUInt(index);
     }
 
     public int readUInt(MemoryIndex index) {
-        return encoding.getUInt32(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Integer.BYTES, false);
+        if (cursor == null) {
+            return encoding.getUInt32(streamio, index);
+        }
+        int value = blockEncoding.getUInt32(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     @Override
     public long readLong() {
-        return encoding.getSInt64(streamio, index);
+        return readLong(index);
     }
 
     @Override
     public long readLong(MemoryIndex index) {
-        return encoding.getSInt64(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Long.BYTES, false);
+        if (cursor == null) {
+            return encoding.getSInt64(streamio, index);
+        }
+        long value = blockEncoding.getSInt64(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     @Override
     public long readULong() {
-        return encoding.getUInt64(streamio, index);
+        return readULong(index);
     }
 
     @Override
     public long readULong(MemoryIndex index) {
-        return encoding.getUInt64(streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Long.BYTES, false);
+        if (cursor == null) {
+            return encoding.getUInt64(streamio, index);
+        }
+        long value = blockEncoding.getUInt64(cursor);
+        index.set(cursor.index());
+        return value;
     }
 
     @Override
@@ -202,6 +269,52 @@ public class SimpleMemoryReader extends AbstractMemoryManagement implements Memo
         return new String(array);
     }
 
+    @Override
+    public String readUtf8() {
+        return readUtf8(index);
+    }
+
+    @Override
+    public String readUtf8(MemoryIndex index) {
+        int length;
+        MemoryCursor cursor = block(streamio, index.get(), 5, false);
+        if (cursor == null) {
+            length = VARINT.readVarInt(streamio, index);
+        } else {
+            length = VARINT.readVarInt(cursor);
+            index.set(cursor.index());
+        }
+        if (length < 0) {
+            throw new RuntimeException("Invalid UTF-8 string length " + (length & 0xFFFFFFFFL));
+        }
+
+        cursor = block(streamio, index.get(), length, false);
+        if (cursor != null && cursor.memory().hasArray()) {
+            // Decode straight from the block
+            String value = new String(cursor.memory().array(), cursor.inc(length), length, StandardCharsets.UTF_8);
+            index.set(cursor.index());
+            return value;
+        }
+        return new String(readBytes(index, length), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String readDictionaryString() {
+        return readDictionaryString(index);
+    }
+
+    @Override
+    public String readDictionaryString(MemoryIndex index) {
+        StringDictionary dictionary = dictionary(false);
+        int slot = VARINT.readVarInt(streamio, index) - 1;
+        if (slot != -1) {
+            return dictionary.get(slot);
+        }
+        String value = readUtf8(index);
+        dictionary.add(value);
+        return value;
+    }
+
     @Override
     public byte[] readBytes(int length) {
         return readBytes(index, length);
@@ -213,16 +326,268 @@ public class SimpleMemoryReader extends AbstractMemoryManagement implements Memo
             throw new IllegalArgumentException("length must be >= 0");
         }
         byte[] bytes = new byte[length];
-        for (int i = 0; i < length; i++) {
-            bytes[i] = streamio.get(index.inc());
-        }
+        streamio.get(index.inc(length), bytes, 0, length);
         return bytes;
     }
 
+    @Override
+    public void readShorts(short[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Short.BYTES, false);
+            if (run == null) {
+                dst[offset++] = readShort();
+                continue;
+            }
+            int count = run.capacity() / Short.BYTES;
+            run.asShortBuffer().get(dst, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void readInts(int[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        if (blockEncoding instanceof VarInt) {
+            readVarInts(dst, offset, length, true);
+            return;
+        }
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Integer.BYTES, false);
+            if (run == null) {
+                dst[offset++] = readInt();
+                continue;
+            }
+            int count = run.capacity() / Integer.BYTES;
+            run.asIntBuffer().get(dst, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void readLongs(long[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        if (blockEncoding instanceof VarInt) {
+            readVarLongs(dst, offset, length, true);
+            return;
+        }
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Long.BYTES, false);
+            if (run == null) {
+                dst[offset++] = readLong();
+                continue;
+            }
+            int count = run.capacity() / Long.BYTES;
+            run.asLongBuffer().get(dst, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void readFloats(float[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Float.BYTES, false);
+            if (run == null) {
+                dst[offset++] = readFloat();
+                continue;
+            }
+            int count = run.capacity() / Float.BYTES;
+            run.asFloatBuffer().get(dst, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void readDoubles(double[] dst, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Double.BYTES, false);
+            if (run == null) {
+                dst[offset++] = readDouble();
+                continue;
+            }
+            int count = run.capacity() / Double.BYTES;
+            run.asDoubleBuffer().get(dst, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void readVarInts(int[] dst, int length) {
+        readVarInts(dst, 0, length);
+    }
+
+    @Override
+    public void readVarInts(int[] dst, int offset, int length) {
+        readVarInts(dst, offset, length, false);
+    }
+
+    @Override
+    public void readZigZagInts(int[] dst, int length) {
+        readZigZagInts(dst, 0, length);
+    }
+
+    @Override
+    public void readZigZagInts(int[] dst, int offset, int length) {
+        readVarInts(dst, offset, length, true);
+    }
+
+    @Override
+    public void readVarLongs(long[] dst, int length) {
+        readVarLongs(dst, 0, length);
+    }
+
+    @Override
+    public void readVarLongs(long[] dst, int offset, int length) {
+        readVarLongs(dst, offset, length, false);
+    }
+
+    @Override
+    public void readZigZagLongs(long[] dst, int length) {
+        readZigZagLongs(dst, 0, length);
+    }
+
+    @Override
+    public void readZigZagLongs(long[] dst, int offset, int length) {
+        readVarLongs(dst, offset, length, true);
+    }
+
+    private void readVarInts(int[] dst, int offset, int length, boolean zigzag) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        int end = offset + length;
+        while (offset < end) {
+            MemoryCursor cursor = block(streamio, index.get(), 5, false);
+            if (cursor == null) {
+                // The next value may cross the end of the block
+                int value = VARINT.readVarInt(streamio, index);
+                dst[offset++] = zigzag ? VARINT.zigzagDecode(value) : value;
+                continue;
+            }
+            offset += VARINT.readVarInts(dst, offset, end - offset, zigzag, cursor);
+            index.set(cursor.index());
+        }
+    }
+
+    private void readVarLongs(long[] dst, int offset, int length, boolean zigzag) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        int end = offset + length;
+        while (offset < end) {
+            MemoryCursor cursor = block(streamio, index.get(), 10, false);
+            if (cursor == null) {
+                // The next value may cross the end of the block
+                long value = VARINT.readVarLong(streamio, index);
+                dst[offset++] = zigzag ? VARINT.zigzagDecode(value) : value;
+                continue;
+            }
+            offset += VARINT.readVarLongs(dst, offset, end - offset, zigzag, cursor);
+            index.set(cursor.index());
+        }
+    }
+
+    @Override
+    public int readVarInt() {
+        MemoryCursor cursor = block(streamio, index.get(), 5, false);
+        if (cursor == null) {
+            return VARINT.readVarInt(streamio, index);
+        }
+        int value = VARINT.readVarInt(cursor);
+        index.set(cursor.index());
+        return value;
+    }
+
+    @Override
+    public long readVarLong() {
+        MemoryCursor cursor = block(streamio, index.get(), 10, false);
+        if (cursor == null) {
+            return VARINT.readVarLong(streamio, index);
+        }
+        long value = VARINT.readVarLong(cursor);
+        index.set(cursor.index());
+        return value;
+    }
+
+    @Override
+    public int readFixed32() {
+        return streamio.getInt(index.inc(Integer.BYTES), ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public long readFixed64() {
+        return streamio.getLong(index.inc(Long.BYTES), ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public int readTag() {
+        return readVarInt();
+    }
+
+    @Override
+    public void skipField(int tag) {
+        switch (WireFormat.wireType(tag)) {
+            case WireFormat.VARINT -> {
+                int bytes = 0;
+                while ((streamio.get(index.inc()) & 0x80) != 0) {
+                    if (++bytes == 10) {
+                        throw new RuntimeException("VarInt too big. Expected 10 but got " + (bytes + 1));
+                    }
+                }
+            }
+            case WireFormat.FIXED64 -> index.inc(Long.BYTES);
+            case WireFormat.FIXED32 -> index.inc(Integer.BYTES);
+            case WireFormat.LENGTH_DELIMITED -> {
+                int length = readVarInt();
+                if (length < 0) {
+                    throw new RuntimeException("Invalid field length " + (length & 0xFFFFFFFFL));
+                }
+                index.inc(length);
+            }
+            default -> throw new IllegalArgumentException("Unknown wire type " + WireFormat.wireType(tag));
+        }
+    }
+
+    @Override
+    public RecordView readRecord() {
+        return readRecord(new RecordView());
+    }
+
+    @Override
+    public RecordView readRecord(RecordView view) {
+        int length = readRecordLength();
+        return view.set(streamio, index.inc(length), length);
+    }
+
+    @Override
+    public void skipRecord() {
+        index.inc(readRecordLength());
+    }
+
+    @Override
+    public <F extends Flyweight> F readFlyweight(F flyweight) {
+        flyweight.wrap(streamio, index.inc(flyweight.length()));
+        return flyweight;
+    }
+
+    private int readRecordLength() {
+        int length = readVarInt();
+        if (length < 0) {
+            throw new RuntimeException("Invalid record length " + (length & 0xFFFFFFFFL));
+        }
+        return length;
+    }
+
     @Override
     public<T> T readObject(Class<T> type) {
         java.util.Objects.requireNonNull(type);
         java.util.Objects.requireNonNull(serializers);
+        if (references != null) {
+            return type.cast(readReference());
+        }
         return readObject(serializers.find(type));
     }
 
@@ -232,6 +597,81 @@ public class SimpleMemoryReader extends AbstractMemoryManagement implements Memo
         return serializer.unserialize(this);
     }
 
+    @Override
+    public Object readTypedObject() {
+        java.util.Objects.requireNonNull(serializers);
+        int id = VARINT.readVarInt(streamio, index);
+        ObjectSerializer<?> serializer = serializers.findById(id);
+        if (serializer == null) {
+            throw new IllegalArgumentException("Unknown type id " + id);
+        }
+        return serializer.unserialize(this);
+    }
+
+    @Override
+    public Object readGraph() {
+        if (references != null) {
+            // Part of the graph being read
+            return readReference();
+        }
+        java.util.Objects.requireNonNull(serializers);
+        references = new ArrayList<>();
+        try {
+            return readReference();
+        } finally {
+            references = null;
+            pending = -1;
+        }
+    }
+
+    @Override
+    public void reference(Object object) {
+        if (references != null && pending != -1) {
+            references.set(pending, object);
+            pending = -1;
+        }
+    }
+
+    /**
+     * <p>
+     * Read a null marker, a reference to an object already read, or the
+     * type id followed by the object.</p>
+     */
+    private Object readReference() {
+        int tag = VARINT.readVarInt(streamio, index);
+        if (tag == NULL) {
+            return null;
+        }
+        if ((tag & 1) == 1) {
+            int handle = tag >>> 1;
+            if (handle >= references.size()) {
+                throw new IllegalArgumentException("Unknown reference " + handle);
+            }
+            Object object = references.get(handle);
+            if (object == UNRESOLVED) {
+                throw new IllegalStateException("Reference " + handle + " to an object whose serializer does not support cycles");
+            }
+            return object;
+        }
+
+        int id = (tag >>> 1) - 1;
+        ObjectSerializer<?> serializer = serializers.findById(id);
+        if (serializer == null) {
+            throw new IllegalArgumentException("Unknown type id " + id);
+        }
+        int handle = references.size();
+        references.add(UNRESOLVED);
+        int outer = pending;
+        pending = handle;
+        try {
+            Object object = serializer.unserialize(this);
+            references.set(handle, object);
+            return object;
+        } finally {
+            pending = outer;
+        }
+    }
+
     public SimpleMemoryReader reader(IntEncoding encoding) {
         return new SimpleMemoryReader(streamio, index, encoding);
     }
@@ -1,12 +1,31 @@
 package com.broman.streamio.io;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 import com.broman.streamio.IStreamio;
+import com.broman.streamio.Memory;
 import com.broman.streamio.io.encoding.IntEncoding;
+import com.broman.streamio.io.encoding.VarInt;
 import com.broman.streamio.serialization.ObjectSerializer;
+import com.broman.streamio.serialization.SerializationRegistry;
 
 public class SimpleMemoryWriter extends AbstractMemoryManagement implements MemoryWriter {
 
+    private final static VarInt VARINT = new VarInt();
+    private final static int CHUNK_SIZE = 512;
+    // Graph tags, odd ones are references
+    private final static int NULL = 0;
+    // Room kept for the length of a length delimited field
+    private final static int LENGTH_BYTES = 5;
+
     private IStreamio streamio;
+    private byte[] chunk;
+    // Handles of the objects of the graph being written, null outside of a graph
+    private Map<Object, Integer> references;
 
     public SimpleMemoryWriter(IStreamio streamio) {
         this(streamio, new MemoryIndex(0), MemoryEncoding.BIG_ENDIAN);
@@ -21,7 +40,8 @@ public class SimpleMemoryWriter extends AbstractMemoryManagement implements Memo
         if (streamio == null) {
             throw new NullPointerException("Streamio cannot be null");
         }
-        this.streamio = streamio;
+        // Each reader and writer keeps its own hot memory block
+        this.streamio = streamio.accessor();
     }
 
     @Override
@@ -36,80 +56,128 @@ public class SimpleMemoryWriter extends AbstractMemoryManagement implements Memo
 
     @Override
     public void writeShort(short value) {
-        encoding.putSInt16(value, streamio, index);
+        writeShort(index, value);
     }
 
     @Override
     public void writeShort(MemoryIndex index, short value) {
-        encoding.putSInt16(value, streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Short.BYTES, true);
+        if (cursor == null) {
+            encoding.putSInt16(value, streamio, index);
+            return;
+        }
+        blockEncoding.putSInt16(value, cursor);
+        index.set(cursor.index());
     }
 
     @Override
     public void writeUShort(short value) {
-        encoding.putUInt16(value, streamio, index);
+        writeUShort(index, value);
     }
 
     @Override
     public void writeUShort(MemoryIndex index, short value) {
-        encoding.putUInt16(value, streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Short.BYTES, true);
+        if (cursor == null) {
+            encoding.putUInt16(value, streamio, index);
+            return;
+        }
+        blockEncoding.putUInt16(value, cursor);
+        index.set(cursor.index());
     }
 
     @Override
     public void writeMedium(int value) {
-        encoding.putSInt24(value, streamio, index);
+        writeMedium(index, value);
     }
 
     @Override
     public void writeMedium(MemoryIndex index, int value) {
-        encoding.putSInt24(value, streamio, index); 
+        MemoryCursor cursor = cursor(streamio, index, 3, true);
+        if (cursor == null) {
+            encoding.putSInt24(value, streamio, index);
+            return;
+        }
+        blockEncoding.putSInt24(value, cursor);
+        index.set(cursor.index());
     }
 
     @Override
     public void writeUMedium(int value) {
-        encoding.putUInt24(value, streamio, index);
+        writeUMedium(index, value);
     }
 
     @Override
     public void writeUMedium(MemoryIndex index, int value) {
-        encoding.putUInt24(value, streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, 3, true);
+        if (cursor == null) {
+            encoding.putUInt24(value, streamio, index);
+            return;
+        }
+        blockEncoding.putUInt24(value, cursor);
+        index.set(cursor.index());
     }
 
     @Override
     public void writeInt(int value) {
-        encoding.putSInt32(value, streamio, index);
+        writeInt(index, value);
     }
 
     @Override
     public void writeInt(MemoryIndex index, int value) {
-        encoding.putSInt32(value, streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Integer.BYTES, true);
+        if (cursor == null) {
+            encoding.putSInt32(value, streamio, index);
+            return;
+        }
+        blockEncoding.putSInt32(value, cursor);
+        index.set(cursor.index());
     }
 
     public void writeUInt(int value) {
-        encoding.putUInt32(value, streamio, index);
+        writeUInt(index, value);
     }
 
     public void writeUInt(MemoryIndex index, int value) {
-        encoding.putUInt32(value, streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Integer.BYTES, true);
+        if (cursor == null) {
+            encoding.putUInt32(value, streamio, index);
+            return;
+        }
+        blockEncoding.putUInt32(value, cursor);
+        index.set(cursor.index());
     }
 
     @Override
     public void writeLong(long value) {
-        encoding.putSInt64(value, streamio, index);
+        writeLong(index, value);
     }
 
     @Override
     public void writeLong(MemoryIndex index, long value) {
-        encoding.putSInt64(value, streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Long.BYTES, true);
+        if (cursor == null) {
+            encoding.putSInt64(value, streamio, index);
+            return;
+        }
+        blockEncoding.putSInt64(value, cursor);
+        index.set(cursor.index());
     }
 
     @Override
     public void writeULong(long value) {
-        encoding.putUInt64(value, streamio, index);
+        writeULong(index, value);
     }
 
     @Override
     public void writeULong(MemoryIndex index, long value) {
-        encoding.putUInt64(value, streamio, index);
+        MemoryCursor cursor = cursor(streamio, index, Long.BYTES, true);
+        if (cursor == null) {
+            encoding.putUInt64(value, streamio, index);
+            return;
+        }
+        blockEncoding.putUInt64(value, cursor);
+        index.set(cursor.index());
     }
 
     @Override
@@ -200,6 +268,49 @@ public class SimpleMemoryWriter extends AbstractMemoryManagement implements Memo
         }
     }
 
+    @Override
+    public void writeUtf8(String value) {
+        writeUtf8(index, value);
+    }
+
+    @Override
+    public void writeUtf8(MemoryIndex index, String value) {
+        boolean ascii = isAscii(value);
+        int length = ascii ? value.length() : utf8Length(value);
+        MemoryCursor cursor = block(streamio, index.get(), 5, true);
+        if (cursor == null) {
+            VARINT.writeVarInt(length, streamio, index);
+        } else {
+            VARINT.writeVarInt(length, cursor);
+            index.set(cursor.index());
+        }
+
+        if (ascii) {
+            writeAscii(index, value);
+        } else {
+            writeUtf8Chars(index, value);
+        }
+    }
+
+    @Override
+    public void writeDictionaryString(String value) {
+        writeDictionaryString(index, value);
+    }
+
+    @Override
+    public void writeDictionaryString(MemoryIndex index, String value) {
+        // Before anything is written, the reader's dictionary must stay in step
+        Objects.requireNonNull(value);
+        StringDictionary dictionary = dictionary(true);
+        // 0 for a new string, the slot plus one for a known one
+        int slot = dictionary.find(value);
+        VARINT.writeVarInt(slot + 1, streamio, index);
+        if (slot == -1) {
+            writeUtf8(index, value);
+            dictionary.add(value);
+        }
+    }
+
     @Override
     public void writeBytes(byte[] value) {
         writeBytes(index, value);
@@ -207,13 +318,379 @@ public class SimpleMemoryWriter extends AbstractMemoryManagement implements Memo
 
     @Override
     public void writeBytes(MemoryIndex index, byte[] value) {
-        for (byte b : value) {
-            writeByte(index, b);
+        streamio.put(index.inc(value.length), value);
+    }
+
+    @Override
+    public void writeShorts(short[] values, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Short.BYTES, true);
+            if (run == null) {
+                writeShort(values[offset++]);
+                continue;
+            }
+            int count = run.capacity() / Short.BYTES;
+            run.asShortBuffer().put(values, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void writeInts(int[] values, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        if (blockEncoding instanceof VarInt) {
+            writeVarInts(values, offset, length, true);
+            return;
+        }
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Integer.BYTES, true);
+            if (run == null) {
+                writeInt(values[offset++]);
+                continue;
+            }
+            int count = run.capacity() / Integer.BYTES;
+            run.asIntBuffer().put(values, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void writeLongs(long[] values, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        if (blockEncoding instanceof VarInt) {
+            writeVarLongs(values, offset, length, true);
+            return;
+        }
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Long.BYTES, true);
+            if (run == null) {
+                writeLong(values[offset++]);
+                continue;
+            }
+            int count = run.capacity() / Long.BYTES;
+            run.asLongBuffer().put(values, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void writeFloats(float[] values, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Float.BYTES, true);
+            if (run == null) {
+                writeFloat(values[offset++]);
+                continue;
+            }
+            int count = run.capacity() / Float.BYTES;
+            run.asFloatBuffer().put(values, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void writeDoubles(double[] values, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int end = offset + length;
+        while (offset < end) {
+            ByteBuffer run = run(streamio, end - offset, Double.BYTES, true);
+            if (run == null) {
+                writeDouble(values[offset++]);
+                continue;
+            }
+            int count = run.capacity() / Double.BYTES;
+            run.asDoubleBuffer().put(values, offset, count);
+            offset += count;
+        }
+    }
+
+    @Override
+    public void writeVarInts(int[] values) {
+        writeVarInts(values, 0, values.length);
+    }
+
+    @Override
+    public void writeVarInts(int[] values, int offset, int length) {
+        writeVarInts(values, offset, length, false);
+    }
+
+    @Override
+    public void writeZigZagInts(int[] values) {
+        writeZigZagInts(values, 0, values.length);
+    }
+
+    @Override
+    public void writeZigZagInts(int[] values, int offset, int length) {
+        writeVarInts(values, offset, length, true);
+    }
+
+    @Override
+    public void writeVarLongs(long[] values) {
+        writeVarLongs(values, 0, values.length);
+    }
+
+    @Override
+    public void writeVarLongs(long[] values, int offset, int length) {
+        writeVarLongs(values, offset, length, false);
+    }
+
+    @Override
+    public void writeZigZagLongs(long[] values) {
+        writeZigZagLongs(values, 0, values.length);
+    }
+
+    @Override
+    public void writeZigZagLongs(long[] values, int offset, int length) {
+        writeVarLongs(values, offset, length, true);
+    }
+
+    /**
+     * <p>
+     * Copy an ASCII string into the memory blocks, a whole run per block.</p>
+     */
+    @SuppressWarnings("deprecation")
+    private void writeAscii(MemoryIndex index, String value) {
+        int length = value.length();
+        int position = 0;
+        while (position < length) {
+            MemoryCursor cursor = block(streamio, index.get(), 1, true);
+            if (cursor == null) {
+                // Out of the stream, let it fail
+                streamio.put(index.inc(), (byte) value.charAt(position++));
+                continue;
+            }
+
+            Memory memory = cursor.memory();
+            int count = Math.min(length - position, cursor.remaining());
+            if (memory.hasArray()) {
+                // A Latin1 string copies its bytes as they are
+                value.getBytes(position, position + count, memory.array(), cursor.inc(count));
+            } else {
+                byte[] chunk = chunk();
+                count = Math.min(count, CHUNK_SIZE);
+                value.getBytes(position, position + count, chunk, 0);
+                memory.put(cursor.inc(count), chunk, 0, count);
+            }
+            position += count;
+            index.set(cursor.index());
+        }
+    }
+
+    /**
+     * <p>
+     * Encode a string into the memory blocks, a whole run per block.</p>
+     *
+     * <p>
+     * Heap blocks are encoded into directly, native ones through a chunk.
+     * A code point that may cross the end of a block goes alone through
+     * the stream.</p>
+     */
+    private void writeUtf8Chars(MemoryIndex index, String value) {
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            MemoryCursor cursor = block(streamio, index.get(), 4, true);
+            Memory memory = cursor == null ? null : cursor.memory();
+            boolean direct = memory != null && memory.hasArray();
+            byte[] dst = direct ? memory.array() : chunk();
+            int start = direct ? cursor.offset() : 0;
+            int room = cursor == null ? 4 : direct ? cursor.remaining() : Math.min(cursor.remaining(), CHUNK_SIZE);
+            // Stop once the next code point may not fit
+            int end = start + room - 3;
+            int position = start;
+            while (i < length && position < end) {
+                int c = value.charAt(i++);
+                if (c < 0x80) {
+                    dst[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    dst[position++] = (byte) (0xC0 | c >> 6);
+                    dst[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (!Character.isSurrogate((char) c)) {
+                    dst[position++] = (byte) (0xE0 | c >> 12);
+                    dst[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    dst[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate((char) c) && i < length && Character.isLowSurrogate(value.charAt(i))) {
+                    c = Character.toCodePoint((char) c, value.charAt(i++));
+                    dst[position++] = (byte) (0xF0 | c >> 18);
+                    dst[position++] = (byte) (0x80 | c >> 12 & 0x3F);
+                    dst[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    dst[position++] = (byte) (0x80 | c & 0x3F);
+                } else {
+                    dst[position++] = '?';
+                }
+            }
+
+            int count = position - start;
+            if (cursor == null) {
+                streamio.put(index.inc(count), dst, 0, count);
+                continue;
+            }
+            if (!direct) {
+                memory.put(cursor.offset(), dst, 0, count);
+            }
+            cursor.inc(count);
+            index.set(cursor.index());
+        }
+    }
+
+    private byte[] chunk() {
+        if (chunk == null) {
+            chunk = new byte[CHUNK_SIZE];
+        }
+        return chunk;
+    }
+
+    /**
+     * @return true if every char of the string is ASCII, false otherwise.
+     */
+    private static boolean isAscii(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the length in bytes of a string encoded as UTF-8.
+     */
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // Two chars, four bytes
+                bytes += 2;
+                i++;
+            }
+        }
+        return bytes;
+    }
+
+    private void writeVarInts(int[] values, int offset, int length, boolean zigzag) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int end = offset + length;
+        while (offset < end) {
+            MemoryCursor cursor = block(streamio, index.get(), 5, true);
+            if (cursor == null) {
+                // The next value may cross the end of the block
+                int value = values[offset++];
+                VARINT.writeVarInt(zigzag ? VARINT.zigzagEncode(value) : value, streamio, index);
+                continue;
+            }
+            offset += VARINT.writeVarInts(values, offset, end - offset, zigzag, cursor);
+            index.set(cursor.index());
+        }
+    }
+
+    private void writeVarLongs(long[] values, int offset, int length, boolean zigzag) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int end = offset + length;
+        while (offset < end) {
+            MemoryCursor cursor = block(streamio, index.get(), 10, true);
+            if (cursor == null) {
+                // The next value may cross the end of the block
+                long value = values[offset++];
+                VARINT.writeVarLong(zigzag ? VARINT.zigzagEncode(value) : value, streamio, index);
+                continue;
+            }
+            offset += VARINT.writeVarLongs(values, offset, end - offset, zigzag, cursor);
+            index.set(cursor.index());
         }
     }
 
+    @Override
+    public void writeVarInt(int value) {
+        MemoryCursor cursor = block(streamio, index.get(), 5, true);
+        if (cursor == null) {
+            VARINT.writeVarInt(value, streamio, index);
+        } else {
+            VARINT.writeVarInt(value, cursor);
+            index.set(cursor.index());
+        }
+    }
+
+    @Override
+    public void writeVarLong(long value) {
+        MemoryCursor cursor = block(streamio, index.get(), 10, true);
+        if (cursor == null) {
+            VARINT.writeVarLong(value, streamio, index);
+        } else {
+            VARINT.writeVarLong(value, cursor);
+            index.set(cursor.index());
+        }
+    }
+
+    @Override
+    public void writeFixed32(int value) {
+        streamio.putInt(index.inc(Integer.BYTES), value, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void writeFixed64(long value) {
+        streamio.putLong(index.inc(Long.BYTES), value, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void writeTag(int field, int wireType) {
+        writeVarInt(WireFormat.tag(field, wireType));
+    }
+
+    @Override
+    public void writeEndTag() {
+        writeVarInt(WireFormat.END);
+    }
+
+    @Override
+    public int startLengthDelimited(int field) {
+        writeTag(field, WireFormat.LENGTH_DELIMITED);
+        return startRecord();
+    }
+
+    @Override
+    public void endLengthDelimited(int mark) {
+        endRecord(mark);
+    }
+
+    @Override
+    public int startRecord() {
+        return index.inc(LENGTH_BYTES);
+    }
+
+    @Override
+    public void endRecord(int mark) {
+        int length = index.get() - mark - LENGTH_BYTES;
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid record mark " + mark);
+        }
+        // A varint padded with continuation bits, so it fits the room kept
+        for (int i = 0; i < LENGTH_BYTES - 1; i++) {
+            streamio.put(mark + i, (byte) (length >>> i * 7 & 0x7F | 0x80));
+        }
+        streamio.put(mark + LENGTH_BYTES - 1, (byte) (length >>> (LENGTH_BYTES - 1) * 7));
+    }
+
     @Override
     public<T> void writeObject(T object) {
+        if (references != null) {
+            writeReference(object);
+            return;
+        }
         writeObject(object, object == null ? null : java.util.Objects.requireNonNull(serializers).find(object.getClass()));
     }
 
@@ -224,6 +701,60 @@ public class SimpleMemoryWriter extends AbstractMemoryManagement implements Memo
         serializer.serialize(object, this);
     } 
 
+    @Override
+    public void writeTypedObject(Object value) {
+        java.util.Objects.requireNonNull(value);
+        SerializationRegistry registry = java.util.Objects.requireNonNull(serializers);
+        int id = registry.idOf(value.getClass());
+        if (id == -1) {
+            throw new IllegalArgumentException("No type id for " + value.getClass().getName());
+        }
+        VARINT.writeVarInt(id, streamio, index);
+        registry.<Object>findById(id).serialize(value, this);
+    }
+
+    @Override
+    public void writeGraph(Object value) {
+        if (references != null) {
+            // Part of the graph being written
+            writeReference(value);
+            return;
+        }
+        java.util.Objects.requireNonNull(serializers);
+        references = new IdentityHashMap<>();
+        try {
+            writeReference(value);
+        } finally {
+            references = null;
+        }
+    }
+
+    /**
+     * <p>
+     * Write a null marker, a reference to an object already written, or the
+     * type id followed by the object.</p>
+     */
+    private void writeReference(Object value) {
+        if (value == null) {
+            VARINT.writeVarInt(NULL, streamio, index);
+            return;
+        }
+        Integer handle = references.get(value);
+        if (handle != null) {
+            VARINT.writeVarInt(handle << 1 | 1, streamio, index);
+            return;
+        }
+
+        int id = serializers.idOf(value.getClass());
+        if (id == -1) {
+            throw new IllegalArgumentException("No type id for " + value.getClass().getName());
+        }
+        // Before its fields, which may refer back to it
+        references.put(value, references.size());
+        VARINT.writeVarInt(id + 1 << 1, streamio, index);
+        serializers.<Object>findById(id).serialize(value, this);
+    }
+
     public MemoryWriter writer(IntEncoding encoding) {
         return new SimpleMemoryWriter(streamio, index, encoding);
     }
@@ -0,0 +1,180 @@
+package com.broman.streamio.io;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A bounded dictionary of strings with least recently used eviction.</p>
+ *
+ * <p>
+ * Strings are kept in numbered slots. A writer looks strings up to find
+ * their slot, a reader looks slots up to find their string, and as long as
+ * both make the same calls in the same order, both dictionaries evict the
+ * same slots and stay in sync. Only a writer needs to look strings up, so
+ * the string index is optional.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public final class StringDictionary {
+
+    private final String[] strings;
+    private final int[] previous;
+    private final int[] next;
+    private final Map<String, Integer> slots;
+    private int size;
+    // Most and least recently used slots
+    private int head = -1;
+    private int tail = -1;
+
+    /**
+     * @param capacity the maximum amount of strings.
+     * @param indexed  whether strings can be looked up by value.
+     */
+    public StringDictionary(int capacity, boolean indexed) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.strings = new String[capacity];
+        this.previous = new int[capacity];
+        this.next = new int[capacity];
+        this.slots = indexed ? new HashMap<>() : null;
+    }
+
+    /**
+     * @return the maximum amount of strings.
+     */
+    public int capacity() {
+        return strings.length;
+    }
+
+    /**
+     * @return the amount of strings.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>
+     * Look a string up, marking it as the most recently used.</p>
+     *
+     * @param value the string to look for.
+     * @return the slot of the string, or -1 if it is not in the dictionary.
+     */
+    public int find(String value) {
+        if (slots == null) {
+            throw new UnsupportedOperationException("Dictionary is not indexed");
+        }
+        Integer slot = slots.get(value);
+        if (slot == null) {
+            return -1;
+        }
+        touch(slot);
+        return slot;
+    }
+
+    /**
+     * <p>
+     * Look a slot up, marking its string as the most recently used.</p>
+     *
+     * @param slot the slot to look for.
+     * @return the string of the slot.
+     */
+    public String get(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IllegalArgumentException("Unknown dictionary slot " + slot);
+        }
+        touch(slot);
+        return strings[slot];
+    }
+
+    /**
+     * <p>
+     * Add a string as the most recently used, evicting the least recently
+     * used one if the dictionary is full.</p>
+     *
+     * @param value the string to add, which must not be in the dictionary.
+     * @return the slot of the string, or -1 if the capacity is 0.
+     */
+    public int add(String value) {
+        if (strings.length == 0) {
+            return -1;
+        }
+
+        int slot;
+        if (size < strings.length) {
+            slot = size++;
+        } else {
+            slot = tail;
+            unlink(slot);
+            if (slots != null) {
+                slots.remove(strings[slot]);
+            }
+        }
+
+        strings[slot] = value;
+        if (slots != null) {
+            slots.put(value, slot);
+        }
+        link(slot);
+        return slot;
+    }
+
+    /**
+     * <p>
+     * Remove every string.</p>
+     */
+    public void clear() {
+        Arrays.fill(strings, 0, size, null);
+        if (slots != null) {
+            slots.clear();
+        }
+        size = 0;
+        head = -1;
+        tail = -1;
+    }
+
+    private void touch(int slot) {
+        if (slot != head) {
+            unlink(slot);
+            link(slot);
+        }
+    }
+
+    private void link(int slot) {
+        previous[slot] = -1;
+        next[slot] = head;
+        if (head != -1) {
+            previous[head] = slot;
+        }
+        head = slot;
+        if (tail == -1) {
+            tail = slot;
+        }
+    }
+
+    private void unlink(int slot) {
+        int before = previous[slot];
+        int after = next[slot];
+        if (before == -1) {
+            head = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == -1) {
+            tail = before;
+        } else {
+            previous[after] = before;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StringDictionary(size=" + size + ", capacity=" + strings.length + ")";
+    }
+
+}
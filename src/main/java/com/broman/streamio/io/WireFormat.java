@@ -0,0 +1,105 @@
+package com.broman.streamio.io;
+
+/**
+ * <p>
+ * The tagged field format, alike to the one of Protocol Buffers.</p>
+ *
+ * <p>
+ * Each field is preceded by a varint tag holding its field number and wire
+ * type, and the wire type alone tells how many bytes the value takes. A
+ * reader can therefore skip fields it does not know with
+ * {@link MemoryReader#skipField(int)}, which lets a serializer add fields
+ * without breaking data written before, or read by older code. A message ends
+ * with the {@link #END} tag.
+ * </p>
+ *
+ * <pre>{@code
+ *     writer.writeTag(1, WireFormat.VARINT);
+ *     writer.writeVarLong(trade.id());
+ *     writer.writeTag(2, WireFormat.LENGTH_DELIMITED);
+ *     writer.writeUtf8(trade.symbol());
+ *     writer.writeEndTag();
+ *
+ *     int tag;
+ *     while ((tag = reader.readTag()) != WireFormat.END) {
+ *         switch (WireFormat.field(tag)) {
+ *             case 1 -> id = reader.readVarLong();
+ *             case 2 -> symbol = reader.readUtf8();
+ *             default -> reader.skipField(tag);
+ *         }
+ *     }
+ * }</pre>
+ *
+ * <p>
+ * Fields framed by {@link MemoryWriter#startRecord()} can also be read one at
+ * a time without decoding the others, see {@link RecordView}.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public final class WireFormat {
+
+    /**
+     * A value written with {@link MemoryWriter#writeVarInt(int)} or {@link MemoryWriter#writeVarLong(long)}.
+     */
+    public final static int VARINT = 0;
+
+    /**
+     * A value written with {@link MemoryWriter#writeFixed64(long)}.
+     */
+    public final static int FIXED64 = 1;
+
+    /**
+     * A varint length followed by as many bytes, such as {@link MemoryWriter#writeUtf8(String)}
+     * or a nested message, see {@link MemoryWriter#startLengthDelimited(int)}.
+     */
+    public final static int LENGTH_DELIMITED = 2;
+
+    /**
+     * A value written with {@link MemoryWriter#writeFixed32(int)}.
+     */
+    public final static int FIXED32 = 5;
+
+    /**
+     * The tag ending a message, field numbers start at 1.
+     */
+    public final static int END = 0;
+
+    public final static int MAX_FIELD = (1 << 29) - 1;
+
+    private WireFormat() {
+    }
+
+    /**
+     * @param field    the field number, from 1 to {@link #MAX_FIELD}.
+     * @param wireType the wire type of the value.
+     * @return the tag.
+     */
+    public static int tag(int field, int wireType) {
+        if (field < 1 || field > MAX_FIELD) {
+            throw new IllegalArgumentException("Field number must be between 1 and " + MAX_FIELD);
+        }
+        if (wireType != VARINT && wireType != FIXED64 && wireType != LENGTH_DELIMITED && wireType != FIXED32) {
+            throw new IllegalArgumentException("Unknown wire type " + wireType);
+        }
+        return field << 3 | wireType;
+    }
+
+    /**
+     * @param tag the tag.
+     * @return the field number of the tag.
+     */
+    public static int field(int tag) {
+        return tag >>> 3;
+    }
+
+    /**
+     * @param tag the tag.
+     * @return the wire type of the tag.
+     */
+    public static int wireType(int tag) {
+        return tag & 7;
+    }
+
+}
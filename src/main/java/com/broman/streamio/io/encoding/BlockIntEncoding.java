@@ -0,0 +1,171 @@
+package com.broman.streamio.io.encoding;
+
+import java.nio.ByteOrder;
+
+import com.broman.streamio.io.MemoryCursor;
+
+/**
+ * <p>Interface for encoding integers directly into memory blocks.</p>
+ *
+ * <p>
+ * Readers and writers use these methods whenever the largest encoding of a
+ * value, see {@link #maxBytes(int)}, fits before the end of the current
+ * memory block. Values that may cross a block boundary go through the
+ * stream methods of {@link IntEncoding} instead, so implementations never
+ * have to deal with block boundaries.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public interface BlockIntEncoding extends IntEncoding {
+
+    /**
+     * <p>Gets the maximum amount of bytes a value can be encoded with.</p>
+     *
+     * @param  bytes The size in bytes of the value type (2 for int16...).
+     * @return       The maximum size in bytes of the encoded value.
+     */
+    int maxBytes(int bytes);
+
+    /**
+     * <p>Gets the byte order of this encoding.</p>
+     * 
+     * <p>Fixed width encodings return the order of their bytes, which lets
+     * readers and writers copy whole arrays of values at once.</p>
+     * 
+     * @return The byte order, or null if values are not encoded with a fixed width.
+     */
+    default ByteOrder order() {
+        return null;
+    }
+
+    /**
+     * <p>Encodes a signed int16 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putSInt16(short value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a signed int16 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    short getSInt16(MemoryCursor cursor);
+
+    /**
+     * <p>Encodes a unsigned int16 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putUInt16(short value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a unsigned int16 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    short getUInt16(MemoryCursor cursor);
+
+    /**
+     * <p>Encodes a signed int24 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putSInt24(int value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a signed int24 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    int getSInt24(MemoryCursor cursor);
+
+    /**
+     * <p>Encodes a unsigned int24 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putUInt24(int value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a unsigned int24 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    int getUInt24(MemoryCursor cursor);
+
+    /**
+     * <p>Encodes a signed int32 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putSInt32(int value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a signed int32 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    int getSInt32(MemoryCursor cursor);
+
+    /**
+     * <p>Encodes a unsigned int32 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putUInt32(int value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a unsigned int32 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    int getUInt32(MemoryCursor cursor);
+
+    /**
+     * <p>Encodes a signed int64 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putSInt64(long value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a signed int64 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    long getSInt64(MemoryCursor cursor);
+
+    /**
+     * <p>Encodes a unsigned int64 into a memory block.</p>
+     * 
+     * @param value  The value to encode.
+     * @param cursor The position to encode at.
+     */
+    void putUInt64(long value, MemoryCursor cursor);
+
+    /**
+     * <p>Decodes a unsigned int64 from a memory block.</p>
+     * 
+     * @param  cursor The position to decode at.
+     * @return        The decoded value.
+     */
+    long getUInt64(MemoryCursor cursor);
+
+}
@@ -1,26 +1,25 @@
 package com.broman.streamio.io.encoding;
 
+import java.nio.ByteOrder;
+
 import com.broman.streamio.IStreamio;
+import com.broman.streamio.io.MemoryCursor;
 import com.broman.streamio.io.MemoryIndex;
 
 /**
  * @author Brayan Roman
  * @since  1.0.0
  */
-public class LittleEndian implements IntEncoding {
+public class LittleEndian implements BlockIntEncoding {
 
     @Override
     public short getSInt16(IStreamio streamio, MemoryIndex index) {
-        return (short) (
-            (streamio.get(index.inc()) & 0xFF)    |
-            (streamio.get(index.inc()) & 0xFF) << 8
-        );
+        return streamio.getShort(index.inc(Short.BYTES), ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
     public void putSInt16(short value, IStreamio streamio, MemoryIndex index) {
-        streamio.put(index.inc(), (byte) value);
-        streamio.put(index.inc(), (byte) (value >> 8));
+        streamio.putShort(index.inc(Short.BYTES), value, ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
@@ -59,18 +58,12 @@ public class LittleEndian implements IntEncoding {
 
     @Override
     public int getSInt32(IStreamio streamio, MemoryIndex index) {
-        return (streamio.get(index.inc()) & 0xFF)       | 
-               (streamio.get(index.inc()) & 0xFF) << 8  | 
-               (streamio.get(index.inc()) & 0xFF) << 16 | 
-               (streamio.get(index.inc()) & 0xFF) << 24 ;
+        return streamio.getInt(index.inc(Integer.BYTES), ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
     public void putSInt32(int value, IStreamio streamio, MemoryIndex index) {
-        streamio.put(index.inc(), (byte) value);
-        streamio.put(index.inc(), (byte) (value >> 8));
-        streamio.put(index.inc(), (byte) (value >> 16));
-        streamio.put(index.inc(), (byte) (value >> 24));
+        streamio.putInt(index.inc(Integer.BYTES), value, ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
@@ -85,26 +78,12 @@ public class LittleEndian implements IntEncoding {
 
     @Override
     public long getSInt64(IStreamio streamio, MemoryIndex index) {
-        return (long) (streamio.get(index.inc()) & 0xFF)       | 
-               (long) (streamio.get(index.inc()) & 0xFF) << 8  | 
-               (long) (streamio.get(index.inc()) & 0xFF) << 16 | 
-               (long) (streamio.get(index.inc()) & 0xFF) << 24 |
-               (long) (streamio.get(index.inc()) & 0xFF) << 32 | 
-               (long) (streamio.get(index.inc()) & 0xFF) << 40 |
-               (long) (streamio.get(index.inc()) & 0xFF) << 48 | 
-               (long) (streamio.get(index.inc()) & 0xFF) << 56;
+        return streamio.getLong(index.inc(Long.BYTES), ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
     public void putSInt64(long value, IStreamio streamio, MemoryIndex index) {
-        streamio.put(index.inc(), (byte) value);
-        streamio.put(index.inc(), (byte) (value >> 8));
-        streamio.put(index.inc(), (byte) (value >> 16));
-        streamio.put(index.inc(), (byte) (value >> 24));
-        streamio.put(index.inc(), (byte) (value >> 32));
-        streamio.put(index.inc(), (byte) (value >> 40));
-        streamio.put(index.inc(), (byte) (value >> 48));
-        streamio.put(index.inc(), (byte) (value >> 56));
+        streamio.putLong(index.inc(Long.BYTES), value, ByteOrder.LITTLE_ENDIAN);
     }
 
     @Override
@@ -116,5 +95,97 @@ public class LittleEndian implements IntEncoding {
     public void putUInt64(long value, IStreamio streamio, MemoryIndex index) {
         putSInt64(value, streamio, index);
     }
-    
+
+    @Override
+    public int maxBytes(int bytes) {
+        return bytes;
+    }
+
+    @Override
+    public ByteOrder order() {
+        return ByteOrder.LITTLE_ENDIAN;
+    }
+
+    @Override
+    public short getSInt16(MemoryCursor cursor) {
+        return cursor.memory().getShort(cursor.inc(Short.BYTES), ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void putSInt16(short value, MemoryCursor cursor) {
+        cursor.memory().putShort(cursor.inc(Short.BYTES), value, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public short getUInt16(MemoryCursor cursor) {
+        return getSInt16(cursor);
+    }
+
+    @Override
+    public void putUInt16(short value, MemoryCursor cursor) {
+        putSInt16(value, cursor);
+    }
+
+    @Override
+    public int getSInt24(MemoryCursor cursor) {
+        int value = cursor.memory().getShort(cursor.inc(Short.BYTES), ByteOrder.LITTLE_ENDIAN) & 0xFFFF;
+        return value | (cursor.memory().get(cursor.inc()) & 0xFF) << 16;
+    }
+
+    @Override
+    public void putSInt24(int value, MemoryCursor cursor) {
+        cursor.memory().putShort(cursor.inc(Short.BYTES), (short) value, ByteOrder.LITTLE_ENDIAN);
+        cursor.memory().put(cursor.inc(), (byte) (value >> 16));
+    }
+
+    @Override
+    public int getUInt24(MemoryCursor cursor) {
+        return getSInt24(cursor);
+    }
+
+    @Override
+    public void putUInt24(int value, MemoryCursor cursor) {
+        putSInt24(value, cursor);
+    }
+
+    @Override
+    public int getSInt32(MemoryCursor cursor) {
+        return cursor.memory().getInt(cursor.inc(Integer.BYTES), ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void putSInt32(int value, MemoryCursor cursor) {
+        cursor.memory().putInt(cursor.inc(Integer.BYTES), value, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public int getUInt32(MemoryCursor cursor) {
+        return getSInt32(cursor);
+    }
+
+    @Override
+    public void putUInt32(int value, MemoryCursor cursor) {
+        putSInt32(value, cursor);
+    }
+
+    @Override
+    public long getSInt64(MemoryCursor cursor) {
+        return cursor.memory().getLong(cursor.inc(Long.BYTES), ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void putSInt64(long value, MemoryCursor cursor) {
+        cursor.memory().putLong(cursor.inc(Long.BYTES), value, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public long getUInt64(MemoryCursor cursor) {
+        return getSInt64(cursor);
+    }
+
+    @Override
+    public void putUInt64(long value, MemoryCursor cursor) {
+        putSInt64(value, cursor);
+    }
+
 }
@@ -1,13 +1,20 @@
 package com.broman.streamio.io.encoding;
 
+import java.nio.ByteOrder;
+import java.util.Objects;
+
 import com.broman.streamio.IStreamio;
+import com.broman.streamio.Memory;
+import com.broman.streamio.io.MemoryCursor;
 import com.broman.streamio.io.MemoryIndex;
 
 /**
  * @author Brayan Roman
  * @since  1.0.0
  */
-public class VarInt implements IntEncoding {
+public class VarInt implements BlockIntEncoding {
+
+    private final static long CONTINUATION_BITS = 0x8080808080808080L;
 
     @Override
     public void putSInt16(short value, IStreamio streamio, MemoryIndex index) {
@@ -137,6 +144,347 @@ public class VarInt implements IntEncoding {
         } while (value != 0);
     }
 
+    @Override
+    public int maxBytes(int bytes) {
+        // Values up to 32 bits are sign extended to int, so any of them may take 5 bytes
+        return bytes == Long.BYTES ? 10 : 5;
+    }
+
+    @Override
+    public void putSInt16(short value, MemoryCursor cursor) {
+        writeVarInt(zigzagEncode((int) value), cursor);
+    }
+
+    @Override
+    public short getSInt16(MemoryCursor cursor) {
+        return (short) zigzagDecode(readVarInt(cursor));
+    }
+
+    @Override
+    public void putUInt16(short value, MemoryCursor cursor) {
+        writeVarInt(value, cursor);
+    }
+
+    @Override
+    public short getUInt16(MemoryCursor cursor) {
+        return (short) readVarInt(cursor);
+    }
+
+    @Override
+    public void putSInt24(int value, MemoryCursor cursor) {
+        writeVarInt(zigzagEncode(value), cursor);
+    }
+
+    @Override
+    public int getSInt24(MemoryCursor cursor) {
+        return zigzagDecode(readVarInt(cursor));
+    }
+
+    @Override
+    public void putUInt24(int value, MemoryCursor cursor) {
+        writeVarInt(value, cursor);
+    }
+
+    @Override
+    public int getUInt24(MemoryCursor cursor) {
+        return readVarInt(cursor);
+    }
+
+    @Override
+    public void putSInt32(int value, MemoryCursor cursor) {
+        writeVarInt(zigzagEncode(value), cursor);
+    }
+
+    @Override
+    public int getSInt32(MemoryCursor cursor) {
+        return zigzagDecode(readVarInt(cursor));
+    }
+
+    @Override
+    public void putUInt32(int value, MemoryCursor cursor) {
+        writeVarInt(value, cursor);
+    }
+
+    @Override
+    public int getUInt32(MemoryCursor cursor) {
+        return readVarInt(cursor);
+    }
+
+    @Override
+    public void putSInt64(long value, MemoryCursor cursor) {
+        writeVarLong(zigzagEncode(value), cursor);
+    }
+
+    @Override
+    public long getSInt64(MemoryCursor cursor) {
+        return zigzagDecode(readVarLong(cursor));
+    }
+
+    @Override
+    public void putUInt64(long value, MemoryCursor cursor) {
+        writeVarLong(value, cursor);
+    }
+
+    @Override
+    public long getUInt64(MemoryCursor cursor) {
+        return readVarLong(cursor);
+    }
+
+    public int readVarInt(MemoryCursor cursor) {
+        Memory memory = cursor.memory();
+        int r = 0;
+        int s = 0;
+        int b;
+
+        do {
+            b = memory.get(cursor.inc());
+            r = r | ((b & 0x7F) << (s++ * 7));
+
+            checkVarLength(s, 5);
+        } while ((b & 0x80) == 0x80);
+
+        return r;
+    }
+
+    public long readVarLong(MemoryCursor cursor) {
+        Memory memory = cursor.memory();
+        long r = 0;
+        long s = 0;
+        long b;
+
+        do {
+            b = memory.get(cursor.inc());
+            r = r | ((b & 0x7F) << (s++ * 7));
+
+            checkVarLength(s, 10);
+        } while ((b & 0x80) == 0x80);
+
+        return r;
+    }
+
+    public void writeVarInt(int value, MemoryCursor cursor) {
+        Memory memory = cursor.memory();
+        int temp;
+        do {
+            temp = value & 0x7F;
+            value >>>= 7;
+            memory.put(cursor.inc(), (byte) (temp + (value == 0 ? 0 : 0x80)));
+        } while (value != 0);
+    }
+
+    public void writeVarLong(long value, MemoryCursor cursor) {
+        Memory memory = cursor.memory();
+        long temp;
+        do {
+            temp = value & 0x7F;
+            value >>>= 7;
+            memory.put(cursor.inc(), (byte) (temp + (value == 0 ? 0 : 0x80)));
+        } while (value != 0);
+    }
+
+    /**
+     * <p>
+     * Decode varints from a memory block into an array, until the array
+     * range is full or the next value may cross the end of the block.</p>
+     *
+     * <p>
+     * Values are decoded from 8-byte words, the length of each one is found
+     * from the continuation bits of the word and its 7-bit groups are packed
+     * with shifts and masks, without a loop per byte.
+     * </p>
+     *
+     * @param dst    the destination array.
+     * @param offset the index of the destination array where to start.
+     * @param length the maximum amount of values to decode.
+     * @param zigzag whether the values are zigzag encoded.
+     * @param cursor the position to decode at.
+     * @return the amount of values decoded.
+     */
+    public int readVarInts(int[] dst, int offset, int length, boolean zigzag, MemoryCursor cursor) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        Memory memory = cursor.memory();
+        int count = 0;
+
+        while (count < length && cursor.remaining() >= Long.BYTES) {
+            long word = memory.getLong(cursor.offset(), ByteOrder.LITTLE_ENDIAN);
+            int bytes = (Long.numberOfTrailingZeros(~word & CONTINUATION_BITS) >>> 3) + 1;
+            checkVarLength(bytes, 5);
+
+            long x = word & (-1L >>> (Long.SIZE - (bytes << 3)));
+            int value = (int) (
+                x & 0x7F |
+                x >>> 1 & 0x3F80 |
+                x >>> 2 & 0x1FC000 |
+                x >>> 3 & 0xFE00000 |
+                x >>> 4 & 0x7F0000000L
+            );
+            dst[offset + count++] = zigzag ? zigzagDecode(value) : value;
+            cursor.inc(bytes);
+        }
+        while (count < length && cursor.remaining() >= 5) {
+            int value = readVarInt(cursor);
+            dst[offset + count++] = zigzag ? zigzagDecode(value) : value;
+        }
+
+        return count;
+    }
+
+    /**
+     * @see #readVarInts(int[], int, int, boolean, MemoryCursor)
+     *
+     * @param dst    the destination array.
+     * @param offset the index of the destination array where to start.
+     * @param length the maximum amount of values to decode.
+     * @param zigzag whether the values are zigzag encoded.
+     * @param cursor the position to decode at.
+     * @return the amount of values decoded.
+     */
+    public int readVarLongs(long[] dst, int offset, int length, boolean zigzag, MemoryCursor cursor) {
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        Memory memory = cursor.memory();
+        int count = 0;
+
+        while (count < length && cursor.remaining() >= Long.BYTES) {
+            long word = memory.getLong(cursor.offset(), ByteOrder.LITTLE_ENDIAN);
+            int bytes = (Long.numberOfTrailingZeros(~word & CONTINUATION_BITS) >>> 3) + 1;
+            if (bytes > Long.BYTES) {
+                // More than 56 bits, only the scalar path can decode it
+                if (cursor.remaining() < 10) {
+                    break;
+                }
+                long value = readVarLong(cursor);
+                dst[offset + count++] = zigzag ? zigzagDecode(value) : value;
+                continue;
+            }
+
+            long x = word & (-1L >>> (Long.SIZE - (bytes << 3)));
+            long value =
+                x & 0x7F |
+                x >>> 1 & 0x3F80 |
+                x >>> 2 & 0x1FC000 |
+                x >>> 3 & 0xFE00000 |
+                x >>> 4 & 0x7F0000000L |
+                x >>> 5 & 0x3F800000000L |
+                x >>> 6 & 0x1FC0000000000L |
+                x >>> 7 & 0xFE000000000000L;
+            dst[offset + count++] = zigzag ? zigzagDecode(value) : value;
+            cursor.inc(bytes);
+        }
+        while (count < length && cursor.remaining() >= 10) {
+            long value = readVarLong(cursor);
+            dst[offset + count++] = zigzag ? zigzagDecode(value) : value;
+        }
+
+        return count;
+    }
+
+    /**
+     * <p>
+     * Encode varints from an array into a memory block, until the array range
+     * is consumed or the next value may not fit before the end of the block.</p>
+     *
+     * <p>
+     * The 7-bit groups and continuation bits of each value are spread into a
+     * word with shifts and masks, which is then stored with at most three
+     * accesses.
+     * </p>
+     *
+     * @param values the values to encode.
+     * @param offset the index of the array where to start.
+     * @param length the maximum amount of values to encode.
+     * @param zigzag whether to zigzag encode the values.
+     * @param cursor the position to encode at.
+     * @return the amount of values encoded.
+     */
+    public int writeVarInts(int[] values, int offset, int length, boolean zigzag, MemoryCursor cursor) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        Memory memory = cursor.memory();
+        int count = 0;
+
+        while (count < length && cursor.remaining() >= 5) {
+            int value = values[offset + count++];
+            if (zigzag) {
+                value = zigzagEncode(value);
+            }
+            long v = value & 0xFFFFFFFFL;
+            int bytes = (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+            long word =
+                v & 0x7F |
+                v << 1 & 0x7F00 |
+                v << 2 & 0x7F0000 |
+                v << 3 & 0x7F000000L |
+                v << 4 & 0x7F00000000L;
+
+            store(memory, cursor.inc(bytes), word | CONTINUATION_BITS & ((1L << ((bytes - 1) << 3)) - 1), bytes);
+        }
+
+        return count;
+    }
+
+    /**
+     * @see #writeVarInts(int[], int, int, boolean, MemoryCursor)
+     *
+     * @param values the values to encode.
+     * @param offset the index of the array where to start.
+     * @param length the maximum amount of values to encode.
+     * @param zigzag whether to zigzag encode the values.
+     * @param cursor the position to encode at.
+     * @return the amount of values encoded.
+     */
+    public int writeVarLongs(long[] values, int offset, int length, boolean zigzag, MemoryCursor cursor) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        Memory memory = cursor.memory();
+        int count = 0;
+
+        while (count < length && cursor.remaining() >= 10) {
+            long value = values[offset + count++];
+            if (zigzag) {
+                value = zigzagEncode(value);
+            }
+            int bytes = (70 - Long.numberOfLeadingZeros(value | 1)) / 7;
+            if (bytes > Long.BYTES) {
+                writeVarLong(value, cursor);
+                continue;
+            }
+            long word =
+                value & 0x7F |
+                value << 1 & 0x7F00 |
+                value << 2 & 0x7F0000 |
+                value << 3 & 0x7F000000L |
+                value << 4 & 0x7F00000000L |
+                value << 5 & 0x7F0000000000L |
+                value << 6 & 0x7F000000000000L |
+                value << 7 & 0x7F00000000000000L;
+
+            store(memory, cursor.inc(bytes), word | CONTINUATION_BITS & ((1L << ((bytes - 1) << 3)) - 1), bytes);
+        }
+
+        return count;
+    }
+
+    /**
+     * Store the low {@code bytes} bytes of a little endian word.
+     */
+    private static void store(Memory memory, int index, long word, int bytes) {
+        if ((bytes & 8) != 0) {
+            memory.putLong(index, word, ByteOrder.LITTLE_ENDIAN);
+            return;
+        }
+        if ((bytes & 4) != 0) {
+            memory.putInt(index, (int) word, ByteOrder.LITTLE_ENDIAN);
+            index += 4;
+            word >>>= 32;
+        }
+        if ((bytes & 2) != 0) {
+            memory.putShort(index, (short) word, ByteOrder.LITTLE_ENDIAN);
+            index += 2;
+            word >>>= 16;
+        }
+        if ((bytes & 1) != 0) {
+            memory.put(index, (byte) word);
+        }
+    }
+
     private void checkVarLength(long value, int limit) {
         if (value > limit) {
             throw new RuntimeException("VarInt too big. Expected " + limit + " but got " + value);
@@ -0,0 +1,108 @@
+package com.broman.streamio.memory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.broman.streamio.Memory;
+import com.broman.streamio.MemoryAllocator;
+
+/**
+ * <p>
+ * A native memory allocator that carves memory blocks out of large slabs.</p>
+ *
+ * <p>
+ * Each slab is a single direct buffer, blocks are slices of it aligned to
+ * 8 bytes, so every block can be viewed as a ByteBuffer and the slabs count
+ * against {@code -XX:MaxDirectMemorySize}. Closing a block does not release
+ * its memory, the slabs are released all at once when this allocator is
+ * closed, after which none of the blocks it allocated can be used, and the
+ * allocator starts over with new slabs. Blocks bigger than a slab are
+ * allocated on their own and released when closed.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class ArenaMemoryAllocator implements MemoryAllocator, AutoCloseable {
+
+    public final static int DEFAULT_SLAB_SIZE = 1 << 20;
+
+    private final static int ALIGNMENT = 8;
+
+    private final int slabSize;
+    private final List<NativeMemory> slabs = new ArrayList<>();
+    private ByteBuffer slab;
+    private int position;
+
+    public ArenaMemoryAllocator() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * @param slabSize the size in bytes of each slab.
+     */
+    public ArenaMemoryAllocator(int slabSize) {
+        if (slabSize < 1) {
+            throw new IllegalArgumentException("Slab size must be greater than 0");
+        }
+        this.slabSize = slabSize;
+    }
+
+    @Override
+    public MemoryType getType() {
+        return MemoryType.NATIVE;
+    }
+
+    @Override
+    public synchronized Memory allocate(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+        if (size > slabSize) {
+            return new NativeMemory(size);
+        }
+        if (slab == null || size > slabSize - position) {
+            slab = ByteBuffer.allocateDirect(slabSize);
+            slabs.add(new NativeMemory(slab, true));
+            position = 0;
+        }
+
+        Memory memory = new NativeMemory(slab.slice(position, size), false);
+        // Keep the next block aligned, unless the slab is full
+        position = (int) Math.min(slabSize, (position + size + ALIGNMENT - 1L) & -ALIGNMENT);
+        return memory;
+    }
+
+    @Override
+    public Memory allocate(byte[] array) {
+        throw new RuntimeException("Byte arrays cannot be allocated as native memory.");
+    }
+
+    @Override
+    public Memory allocate(ByteBuffer buffer) {
+        return new NativeMemory(buffer);
+    }
+
+    /**
+     * @return the amount of slabs allocated.
+     */
+    public synchronized int slabs() {
+        return slabs.size();
+    }
+
+    /**
+     * <p>
+     * Release every slab, blocks allocated from them must not be used anymore.</p>
+     */
+    @Override
+    public synchronized void close() {
+        for (NativeMemory memory : slabs) {
+            memory.close();
+        }
+        slabs.clear();
+        slab = null;
+        position = 0;
+    }
+
+}
@@ -1,5 +1,11 @@
 package com.broman.streamio.memory;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
 import com.broman.streamio.Memory;
 
 /**
@@ -8,6 +14,13 @@ import com.broman.streamio.Memory;
  */
 public class HeapMemory extends Memory {
 
+    private final static VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private final static VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private final static VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private final static VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private final static VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private final static VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
     private byte[] bytes;
 
     public HeapMemory(int size) {
@@ -53,6 +66,142 @@ public class HeapMemory extends Memory {
         bytes[index] = value;
     }
 
+    // The var handles are picked with a branch so each call site stays constant
+
+    @Override
+    public short getShort(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return order == ByteOrder.BIG_ENDIAN ? (short) SHORT_BE.get(bytes, index) : (short) SHORT_LE.get(bytes, index);
+    }
+
+    @Override
+    public void putShort(int index, short value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        if (order == ByteOrder.BIG_ENDIAN) {
+            SHORT_BE.set(bytes, index, value);
+        } else {
+            SHORT_LE.set(bytes, index, value);
+        }
+    }
+
+    @Override
+    public int getInt(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return order == ByteOrder.BIG_ENDIAN ? (int) INT_BE.get(bytes, index) : (int) INT_LE.get(bytes, index);
+    }
+
+    @Override
+    public void putInt(int index, int value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        if (order == ByteOrder.BIG_ENDIAN) {
+            INT_BE.set(bytes, index, value);
+        } else {
+            INT_LE.set(bytes, index, value);
+        }
+    }
+
+    @Override
+    public long getLong(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return order == ByteOrder.BIG_ENDIAN ? (long) LONG_BE.get(bytes, index) : (long) LONG_LE.get(bytes, index);
+    }
+
+    @Override
+    public void putLong(int index, long value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        if (order == ByteOrder.BIG_ENDIAN) {
+            LONG_BE.set(bytes, index, value);
+        } else {
+            LONG_LE.set(bytes, index, value);
+        }
+    }
+
+    @Override
+    public void get(int index, byte[] dst, int offset, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        System.arraycopy(bytes, index, dst, offset, length);
+    }
+
+    @Override
+    public void put(int index, byte[] src, int offset, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        System.arraycopy(src, offset, bytes, index, length);
+    }
+
+    @Override
+    public void get(int index, ByteBuffer dst, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        dst.put(bytes, index, length);
+    }
+
+    @Override
+    public void put(int index, ByteBuffer src, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        src.get(bytes, index, length);
+    }
+
+    @Override
+    public void copyTo(int index, Memory dst, int dstIndex, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        dst.put(dstIndex, bytes, index, length);
+    }
+
+    @Override
+    public void fill(int index, int length, byte value) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Arrays.fill(bytes, index, index + length, value);
+    }
+
+    @Override
+    public ByteBuffer buffer(int index, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return ByteBuffer.wrap(bytes, index, length).slice();
+    }
+
+    @Override
+    public boolean hasBuffer() {
+        return bytes != null;
+    }
+
+    @Override
+    public boolean hasArray() {
+        return bytes != null;
+    }
+
+    @Override
+    public byte[] array() {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return bytes;
+    }
+
     @Override
     public void close() {
         super.close();
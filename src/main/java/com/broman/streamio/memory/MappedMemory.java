@@ -0,0 +1,46 @@
+package com.broman.streamio.memory;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * <p>
+ * A native memory backed by a region of a memory-mapped file.</p>
+ *
+ * <p>
+ * Closing this memory unmaps the region, the content remains in the file.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class MappedMemory extends NativeMemory {
+
+    private MappedByteBuffer buffer;
+
+    public MappedMemory(MappedByteBuffer buffer) {
+        super(buffer, true);
+        this.buffer = buffer;
+    }
+
+    @Override
+    public MemoryType getType() {
+        return MemoryType.MAPPED;
+    }
+
+    /**
+     * <p>
+     * Write any change made to this memory to the storage device containing the mapped file.</p>
+     */
+    public void force() {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        buffer = null;
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.broman.streamio.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import com.broman.streamio.Memory;
+import com.broman.streamio.MemoryAllocator;
+
+/**
+ * <p>
+ * A memory allocator that maps regions of a file as memory blocks.</p>
+ *
+ * <p>
+ * Blocks allocated with {@link #allocate(int)} are mapped one after another
+ * at the end of the file, {@link #allocate(long, int)} maps a specific region.
+ * Closing this allocator closes the file channel, which does not unmap the
+ * blocks already allocated.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class MappedMemoryAllocator implements MemoryAllocator, AutoCloseable {
+
+    private final FileChannel channel;
+    private final MapMode mode;
+    private long position;
+
+    public MappedMemoryAllocator(FileChannel channel) {
+        this(channel, MapMode.READ_WRITE);
+    }
+
+    public MappedMemoryAllocator(FileChannel channel, MapMode mode) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null");
+        }
+        this.channel = channel;
+        this.mode = mode;
+        try {
+            this.position = channel.size();
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public MemoryType getType() {
+        return MemoryType.MAPPED;
+    }
+
+    @Override
+    public Memory allocate(int size) {
+        Memory memory = allocate(position, size);
+        position += size;
+        return memory;
+    }
+
+    /**
+     * <p>
+     * Map a region of the file as a memory block.</p>
+     *
+     * <p>
+     * In {@link MapMode#READ_WRITE} mode the file grows if the region goes beyond its end.</p>
+     *
+     * @param position the position within the file where the region starts.
+     * @param size     the size in bytes of the region.
+     * @return the created Memory instance.
+     */
+    public Memory allocate(long position, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+        try {
+            return new MappedMemory(channel.map(mode, position, size));
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * @return the current size in bytes of the file.
+     */
+    public long size() {
+        try {
+            return channel.size();
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public Memory allocate(byte[] array) {
+        throw new RuntimeException("Byte arrays cannot be allocated as mapped memory.");
+    }
+
+    @Override
+    public Memory allocate(ByteBuffer buffer) {
+        if (buffer instanceof MappedByteBuffer mapped) {
+            return new MappedMemory(mapped);
+        }
+        throw new RuntimeException("Only mapped buffers can be allocated as mapped memory.");
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+}
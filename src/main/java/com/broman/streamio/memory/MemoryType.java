@@ -5,5 +5,5 @@ package com.broman.streamio.memory;
  * @since  1.0.0
  */
 public enum MemoryType {
-    HEAP, NATIVE
+    HEAP, NATIVE, MAPPED
 }
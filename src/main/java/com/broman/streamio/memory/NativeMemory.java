@@ -2,7 +2,12 @@ package com.broman.streamio.memory;
 
 import java.lang.reflect.Field;
 import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.Objects;
 
 import com.broman.streamio.Memory;
 
@@ -16,6 +21,7 @@ public class NativeMemory extends Memory {
 
     private final static Unsafe UNSAFE;
     private final static long ADDRESS_FIELD;
+    private final static ByteOrder NATIVE_ORDER = ByteOrder.nativeOrder();
 
     static {
         try {
@@ -34,29 +40,49 @@ public class NativeMemory extends Memory {
 
     private int size;
     private long address;
-    private Object attachment;
+    private ByteBuffer buffer;
+    private boolean owner;
 
     public NativeMemory(ByteBuffer buffer) {
+        this(buffer, false);
+    }
+
+    /**
+     * @param buffer the direct buffer to be used as memory.
+     * @param owner  whether this memory releases the buffer when closed.
+     */
+    protected NativeMemory(ByteBuffer buffer, boolean owner) {
         if (buffer == null) {
             throw new IllegalArgumentException("Buffer cannot be null");
         }
         if (buffer.isDirect()) {
-            size = buffer.capacity();
-            address = getAddress(buffer);
-            attachment = buffer; // Keep a reference to the buffer so it doesn't get garbage collected
+            this.size = buffer.capacity();
+            this.address = getAddress(buffer);
+            this.buffer = buffer; // Keep a reference to the buffer so it doesn't get garbage collected
+            this.owner = owner;
         }
         else {
             throw new IllegalArgumentException("buffer is not direct");
         }
     }
 
+    /**
+     * <p>
+     * Allocate native memory, which is not cleared, so bytes not written
+     * yet hold whatever the memory held before. The memory is not a direct
+     * buffer, so it does not count against {@code -XX:MaxDirectMemorySize},
+     * and it cannot be viewed as a ByteBuffer, see {@link #hasBuffer()}.</p>
+     *
+     * @param size the size in bytes of the memory.
+     */
     public NativeMemory(int size) {
         if (size < 1) {
             throw new IllegalArgumentException("Size must be greater than 0");
         }
         this.size = size;
         this.address = UNSAFE.allocateMemory(size);
-        this.attachment = null;
+        this.buffer = null;
+        this.owner = true;
     }
 
     @Override
@@ -85,19 +111,188 @@ public class NativeMemory extends Memory {
         UNSAFE.putByte(address + index, value);
     }
 
+    // Unaligned accesses are fine on the platforms Unsafe supports (x86, aarch64)
+
+    @Override
+    public short getShort(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, Short.BYTES, size);
+        short value = UNSAFE.getShort(address + index);
+        return order == NATIVE_ORDER ? value : Short.reverseBytes(value);
+    }
+
+    @Override
+    public void putShort(int index, short value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, Short.BYTES, size);
+        UNSAFE.putShort(address + index, order == NATIVE_ORDER ? value : Short.reverseBytes(value));
+    }
+
+    @Override
+    public int getInt(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, Integer.BYTES, size);
+        int value = UNSAFE.getInt(address + index);
+        return order == NATIVE_ORDER ? value : Integer.reverseBytes(value);
+    }
+
+    @Override
+    public void putInt(int index, int value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, Integer.BYTES, size);
+        UNSAFE.putInt(address + index, order == NATIVE_ORDER ? value : Integer.reverseBytes(value));
+    }
+
+    @Override
+    public long getLong(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, Long.BYTES, size);
+        long value = UNSAFE.getLong(address + index);
+        return order == NATIVE_ORDER ? value : Long.reverseBytes(value);
+    }
+
+    @Override
+    public void putLong(int index, long value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, Long.BYTES, size);
+        UNSAFE.putLong(address + index, order == NATIVE_ORDER ? value : Long.reverseBytes(value));
+    }
+
+    @Override
+    public void get(int index, byte[] dst, int offset, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, length, size);
+        Objects.checkFromIndexSize(offset, length, dst.length);
+        UNSAFE.copyMemory(null, address + index, dst, Unsafe.ARRAY_BYTE_BASE_OFFSET + offset, length);
+    }
+
+    @Override
+    public void put(int index, byte[] src, int offset, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, length, size);
+        Objects.checkFromIndexSize(offset, length, src.length);
+        UNSAFE.copyMemory(src, Unsafe.ARRAY_BYTE_BASE_OFFSET + offset, null, address + index, length);
+    }
+
+    @Override
+    public void get(int index, ByteBuffer dst, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, length, size);
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        int position = dst.position();
+        if (dst.isDirect()) {
+            UNSAFE.copyMemory(address + index, getAddress(dst) + position, length);
+        } else {
+            UNSAFE.copyMemory(null, address + index, dst.array(), Unsafe.ARRAY_BYTE_BASE_OFFSET + dst.arrayOffset() + position, length);
+        }
+        dst.position(position + length);
+    }
+
+    @Override
+    public void put(int index, ByteBuffer src, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, length, size);
+        if (src.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+
+        int position = src.position();
+        if (src.isDirect()) {
+            UNSAFE.copyMemory(getAddress(src) + position, address + index, length);
+        } else if (src.hasArray()) {
+            UNSAFE.copyMemory(src.array(), Unsafe.ARRAY_BYTE_BASE_OFFSET + src.arrayOffset() + position, null, address + index, length);
+        } else {
+            // Read-only heap buffers do not expose their array
+            super.put(index, src, length);
+            return;
+        }
+        src.position(position + length);
+    }
+
+    @Override
+    public void copyTo(int index, Memory dst, int dstIndex, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        if (dst instanceof NativeMemory memory) {
+            if (memory.closed()) {
+                throw new IllegalStateException("Memory is closed");
+            }
+            Objects.checkFromIndexSize(index, length, size);
+            Objects.checkFromIndexSize(dstIndex, length, memory.size);
+            UNSAFE.copyMemory(address + index, memory.address + dstIndex, length);
+        } else {
+            super.copyTo(index, dst, dstIndex, length);
+        }
+    }
+
+    @Override
+    public void fill(int index, int length, byte value) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, length, size);
+        UNSAFE.setMemory(address + index, length, value);
+    }
+
+    @Override
+    public ByteBuffer buffer(int index, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        if (buffer == null) {
+            // Allocated with Unsafe, no buffer owns the memory
+            return super.buffer(index, length);
+        }
+        return buffer.slice(index, length);
+    }
+
+    @Override
+    public boolean hasBuffer() {
+        return buffer != null;
+    }
+
     @Override
     public void close() {
         super.close();
 
-        if (attachment == null) {
-            if (address != 0) {
+        if (owner) {
+            if (buffer == null) {
                 UNSAFE.freeMemory(address);
+            } else {
+                UNSAFE.invokeCleaner(buffer);
             }
         }
         
         size = 0;
         address = 0;
-        attachment = null;
+        buffer = null;
     }
 
 }
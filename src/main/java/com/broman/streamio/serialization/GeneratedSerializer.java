@@ -0,0 +1,297 @@
+package com.broman.streamio.serialization;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import com.broman.streamio.io.MemoryReader;
+import com.broman.streamio.io.MemoryWriter;
+
+/**
+ * <p>
+ * An object serializer generated at runtime for records and simple classes.</p>
+ *
+ * <p>
+ * The fields of the type are looked up once, and each direction is composed
+ * into a single method handle that calls the getters, setters, constructor
+ * and {@link MemoryWriter}/{@link MemoryReader} methods in order. There is no
+ * reflection after the serializer is created, and the JVM compiles hot
+ * handles into straight code, as a hand-written serializer would be.
+ * </p>
+ *
+ * <p>
+ * Records are written in the order of their components and created through
+ * their canonical constructor. Other classes need a constructor without
+ * parameters and no final fields, their non-static, non-transient fields are
+ * written from the top superclass down, sorted by name within each class.
+ * Fields are only accessed through the provided lookup. As they are created
+ * before their fields are read, they can be part of cyclic object graphs,
+ * see {@link MemoryReader#reference(Object)}.
+ * </p>
+ *
+ * <p>
+ * Primitives are written with the methods of their type, strings as UTF-8 and
+ * enums by ordinal. Other types are written with
+ * {@link MemoryWriter#writeObject(Object)}, so their serializers must be
+ * registered. References are preceded by a boolean telling whether they are
+ * null.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public final class GeneratedSerializer<T> implements ObjectSerializer<T> {
+
+    private final static MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private final static MethodType WRITE = MethodType.methodType(void.class, Object.class, MemoryWriter.class);
+    private final static MethodType READ = MethodType.methodType(Object.class, MemoryReader.class);
+
+    /**
+     * <p>
+     * Generate a serializer, with private access to the type.</p>
+     *
+     * <p>
+     * Types in named modules must be open to this library, otherwise use
+     * {@link #of(Class, MethodHandles.Lookup)}.</p>
+     *
+     * @param type the type to serialize.
+     * @return the serializer.
+     */
+    public static<T> GeneratedSerializer<T> of(Class<T> type) {
+        Objects.requireNonNull(type);
+        try {
+            return of(type, MethodHandles.privateLookupIn(type, LOOKUP));
+        } catch (IllegalAccessException exception) {
+            throw new IllegalArgumentException("Cannot access " + type.getName(), exception);
+        }
+    }
+
+    /**
+     * <p>
+     * Generate a serializer with the access of a lookup.</p>
+     *
+     * @param type   the type to serialize.
+     * @param lookup a lookup with access to the fields and constructors of the type,
+     *               usually {@code MethodHandles.lookup()} of the type itself.
+     * @return the serializer.
+     * @throws IllegalArgumentException if the type cannot be serialized, or the
+     *                                  lookup has no access to its fields and constructors.
+     */
+    public static<T> GeneratedSerializer<T> of(Class<T> type, MethodHandles.Lookup lookup) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(lookup);
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("Cannot generate a serializer for " + type.getName());
+        }
+        try {
+            return type.isRecord() ? record(type, lookup) : simple(type, lookup);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalArgumentException("Cannot generate a serializer for " + type.getName(), exception);
+        }
+    }
+
+    private static<T> GeneratedSerializer<T> record(Class<T> type, MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        MethodHandle[] getters = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+            getters[i] = lookup.unreflect(components[i].getAccessor());
+        }
+
+        // (c0, ..., cn, reader) -> record, then fold each component in from the last one,
+        // so the outermost fold, which runs first, reads the first component
+        MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class, types));
+        MethodHandle read = MethodHandles.dropArguments(constructor.asType(constructor.type().changeReturnType(Object.class)), types.length, MemoryReader.class);
+        for (int i = types.length - 1; i >= 0; i--) {
+            read = MethodHandles.foldArguments(read, i, reader(types[i]));
+        }
+
+        return new GeneratedSerializer<>(type, writeAll(getters, types), read.asType(READ));
+    }
+
+    private static<T> GeneratedSerializer<T> simple(Class<T> type, MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+            List<Field> declared = new ArrayList<>();
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    declared.add(field);
+                }
+            }
+            declared.sort(Comparator.comparing(Field::getName));
+            fields.addAll(0, declared);
+        }
+
+        Class<?>[] types = new Class<?>[fields.size()];
+        MethodHandle[] getters = new MethodHandle[fields.size()];
+        // (object, reader) -> void, setting each field from the last one
+        MethodHandle set = MethodHandles.empty(MethodType.methodType(void.class, Object.class, MemoryReader.class));
+        for (int i = fields.size() - 1; i >= 0; i--) {
+            Field field = fields.get(i);
+            if (Modifier.isFinal(field.getModifiers())) {
+                // Would have to be rewritten after construction
+                throw new IllegalArgumentException(type.getName() + " cannot have final field " + field.getName() + ", make it a record instead");
+            }
+            types[i] = field.getType();
+            getters[i] = lookup.unreflectGetter(field);
+            MethodHandle setter = lookup.unreflectSetter(field);
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, types[i]));
+            set = MethodHandles.foldArguments(set, MethodHandles.filterArguments(setter, 1, reader(types[i])));
+        }
+        // Before any field, so objects of a cycle can refer back to this one
+        MethodHandle reference = LOOKUP.findVirtual(MemoryReader.class, "reference", MethodType.methodType(void.class, Object.class));
+        set = MethodHandles.foldArguments(set, MethodHandles.permuteArguments(reference, set.type(), 1, 0));
+
+        MethodHandle constructor;
+        try {
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException exception) {
+            throw new IllegalArgumentException(type.getName() + " needs a constructor without parameters", exception);
+        }
+        // (object, reader) -> object, after setting the fields
+        MethodHandle read = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, MemoryReader.class);
+        read = MethodHandles.foldArguments(read, set);
+        read = MethodHandles.foldArguments(read, constructor.asType(MethodType.methodType(Object.class)));
+
+        return new GeneratedSerializer<>(type, writeAll(getters, types), read.asType(READ));
+    }
+
+    /**
+     * @return (object, writer) -> void, writing each value in order.
+     */
+    private static MethodHandle writeAll(MethodHandle[] getters, Class<?>[] types) throws ReflectiveOperationException {
+        MethodHandle write = MethodHandles.empty(WRITE);
+        for (int i = getters.length - 1; i >= 0; i--) {
+            MethodHandle getter = getters[i].asType(MethodType.methodType(types[i], Object.class));
+            // (writer, object) -> void, then swapped
+            MethodHandle step = MethodHandles.filterArguments(writer(types[i]), 1, getter);
+            step = MethodHandles.permuteArguments(step, WRITE, 1, 0);
+            write = MethodHandles.foldArguments(write, step);
+        }
+        return write;
+    }
+
+    /**
+     * @return (writer, value) -> void.
+     */
+    private static MethodHandle writer(Class<?> type) throws ReflectiveOperationException {
+        if (type.isPrimitive()) {
+            return LOOKUP.findVirtual(MemoryWriter.class, "write" + name(type), MethodType.methodType(void.class, type));
+        }
+
+        MethodHandle write;
+        Class<?> primitive = MethodType.methodType(type).unwrap().returnType();
+        if (primitive != type) {
+            write = writer(primitive).asType(MethodType.methodType(void.class, MemoryWriter.class, type));
+        } else if (type == String.class) {
+            write = LOOKUP.findVirtual(MemoryWriter.class, "writeUtf8", MethodType.methodType(void.class, String.class));
+        } else if (type.isEnum()) {
+            MethodHandle ordinal = LOOKUP.findVirtual(Enum.class, "ordinal", MethodType.methodType(int.class));
+            write = MethodHandles.filterArguments(writer(int.class), 1, ordinal.asType(MethodType.methodType(int.class, type)));
+        } else {
+            write = LOOKUP.findVirtual(MemoryWriter.class, "writeObject", MethodType.methodType(void.class, Object.class));
+            write = write.asType(MethodType.methodType(void.class, MemoryWriter.class, type));
+        }
+
+        // Preceded by whether the reference is null
+        MethodHandle flag = LOOKUP.findVirtual(MemoryWriter.class, "writeBoolean", MethodType.methodType(void.class, boolean.class));
+        MethodHandle absent = MethodHandles.dropArguments(MethodHandles.insertArguments(flag, 1, false), 1, type);
+        MethodHandle present = MethodHandles.foldArguments(write, MethodHandles.dropArguments(MethodHandles.insertArguments(flag, 1, true), 1, type));
+        MethodHandle isNull = LOOKUP.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+        isNull = MethodHandles.dropArguments(isNull.asType(MethodType.methodType(boolean.class, type)), 0, MemoryWriter.class);
+        return MethodHandles.guardWithTest(isNull, absent, present);
+    }
+
+    /**
+     * @return (reader) -> value.
+     */
+    private static MethodHandle reader(Class<?> type) throws ReflectiveOperationException {
+        if (type.isPrimitive()) {
+            return LOOKUP.findVirtual(MemoryReader.class, "read" + name(type), MethodType.methodType(type));
+        }
+
+        MethodHandle read;
+        Class<?> primitive = MethodType.methodType(type).unwrap().returnType();
+        if (primitive != type) {
+            read = reader(primitive).asType(MethodType.methodType(type, MemoryReader.class));
+        } else if (type == String.class) {
+            read = LOOKUP.findVirtual(MemoryReader.class, "readUtf8", MethodType.methodType(String.class));
+        } else if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            MethodHandle constant = MethodHandles.arrayElementGetter(constants.getClass()).bindTo(constants);
+            read = MethodHandles.filterReturnValue(reader(int.class), constant).asType(MethodType.methodType(type, MemoryReader.class));
+        } else {
+            read = LOOKUP.findVirtual(MemoryReader.class, "readObject", MethodType.methodType(Object.class, Class.class));
+            read = MethodHandles.insertArguments(read, 1, type).asType(MethodType.methodType(type, MemoryReader.class));
+        }
+
+        MethodHandle flag = LOOKUP.findVirtual(MemoryReader.class, "readBoolean", MethodType.methodType(boolean.class));
+        MethodHandle absent = MethodHandles.dropArguments(MethodHandles.constant(type, null), 0, MemoryReader.class);
+        return MethodHandles.guardWithTest(flag, read, absent);
+    }
+
+    /**
+     * @return the name of a primitive type as used by readers and writers.
+     */
+    private static String name(Class<?> type) {
+        String name = type.getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private final Class<T> type;
+    private final MethodHandle serializer;
+    private final MethodHandle unserializer;
+
+    /**
+     * @param serializer   (object, writer) -> void.
+     * @param unserializer (reader) -> object.
+     */
+    private GeneratedSerializer(Class<T> type, MethodHandle serializer, MethodHandle unserializer) {
+        this.type = type;
+        this.serializer = serializer;
+        this.unserializer = unserializer;
+    }
+
+    @Override
+    public Class<T> getType() {
+        return type;
+    }
+
+    @Override
+    public void serialize(T object, MemoryWriter writer) {
+        try {
+            serializer.invokeExact((Object) object, writer);
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T unserialize(MemoryReader reader) {
+        try {
+            return (T) (Object) unserializer.invokeExact(reader);
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedSerializer(" + type.getName() + ")";
+    }
+
+}
@@ -1,17 +1,54 @@
 package com.broman.streamio.serialization;
 
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A registry of serializers for different types.
- * 
+ *
+ * <p>
+ * The registry is safe for concurrent use. Looking a type up is lock-free,
+ * the serializer resolved for each class is cached, including the lack of one,
+ * and the cache is invalidated whenever a serializer is registered or removed.
+ * </p>
+ *
+ * <p>
+ * A type without a serializer of its own uses the one of its closest
+ * superclass, otherwise the one of the first of its interfaces, searched
+ * breadth first from the type up.
+ * </p>
+ *
+ * <p>
+ * Serializers can be registered with a type id, a small number identifying
+ * the type in the memory, see {@link com.broman.streamio.io.MemoryWriter#writeTypedObject(Object)}.
+ * </p>
+ *
  * @author Brayan Roman
  * @since  1.0.0
  */
 @SuppressWarnings("unchecked")
 public final class SerializationRegistry {
-    private final Map<Class<?>, ObjectSerializer<?>> serializers = new HashMap<>();
+
+    /**
+     * The greatest type id, so the id table stays compact.
+     */
+    public final static int MAX_TYPE_ID = (1 << 16) - 1;
+
+    private final Map<Class<?>, Registration> serializers = new ConcurrentHashMap<>();
+    private volatile ObjectSerializer<?>[] ids = new ObjectSerializer<?>[0];
+    private volatile int version;
+
+    private final ClassValue<Resolved> resolved = new ClassValue<>() {
+        @Override
+        protected Resolved computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
 
     /**
      * <p>
@@ -22,43 +59,81 @@ public final class SerializationRegistry {
      * This means that there is no difference between a {@code Map<String, String>} and a {@code Map<Integer, Integer>} class,
      * so the type of the serializer will be the same for both of them, which is {@code Map}.
      * </p>
-     * 
+     *
      * @param serializer the serializer to add, if the serializer's type is null, an
      *               {@link IllegalArgumentException} will be thrown.
      */
     public<T> void register(ObjectSerializer<T> serializer) {
+        register(serializer, -1);
+    }
+
+    /**
+     * <p>
+     * Add a serializer to the registry with a type id.</p>
+     *
+     * @param serializer the serializer to add.
+     * @param id         the type id, from 0 to {@link #MAX_TYPE_ID}, or -1 for none.
+     */
+    public synchronized<T> void register(ObjectSerializer<T> serializer, int id) {
         Class<?> type = serializer.getType();
         if (type == null) {
             throw new IllegalArgumentException("Serializer type cannot be null");
         }
-        serializers.put(type, serializer);
+        if (id < -1 || id > MAX_TYPE_ID) {
+            throw new IllegalArgumentException("Type id must be between 0 and " + MAX_TYPE_ID);
+        }
+        if (id != -1 && id < ids.length && ids[id] != null && ids[id].getType() != type) {
+            throw new IllegalArgumentException("Type id " + id + " is already used by " + ids[id].getType().getName());
+        }
+
+        Registration previous = serializers.put(type, new Registration(serializer, id));
+        ObjectSerializer<?>[] table = ids;
+        if (previous != null && previous.id != -1) {
+            table = table.clone();
+            table[previous.id] = null;
+        }
+        if (id != -1) {
+            table = Arrays.copyOf(table, Math.max(table.length, id + 1));
+            table[id] = serializer;
+        }
+        ids = table;
+        version++;
     }
 
     /**
      * <p>
      * Removes a serializer from the registry.</p>
-     * 
+     *
      * @param type the type of the serializer to remove.
      */
-    public void unregister(Class<?> type) {
-        serializers.remove(type);
+    public synchronized void unregister(Class<?> type) {
+        Registration previous = serializers.remove(type);
+        if (previous == null) {
+            return;
+        }
+        if (previous.id != -1) {
+            ObjectSerializer<?>[] table = ids.clone();
+            table[previous.id] = null;
+            ids = table;
+        }
+        version++;
     }
 
     /**
      * <p>
      * Gets an serializer from the registry.</p>
-     * 
+     *
      * @param type the type of the serializer to get.
      * @return     the serializer, or null if the serializer does not exist.
      */
     public<T> ObjectSerializer<T> find(Class<?> type) {
-        return (ObjectSerializer<T>) serializers.get(type);
+        return (ObjectSerializer<T>) lookup(type).serializer;
     }
 
     /**
      * <p>
      * Gets an serializer from the registry.</p>
-     * 
+     *
      * @param object the object to get the serializer for.
      * @return       the serializer, or null if the serializer does not exist.
      */
@@ -66,21 +141,44 @@ public final class SerializationRegistry {
         return find(object.getClass());
     }
 
+    /**
+     * <p>
+     * Gets an serializer from the registry by type id.</p>
+     *
+     * @param id the type id of the serializer.
+     * @return   the serializer, or null if no serializer has this id.
+     */
+    public<T> ObjectSerializer<T> findById(int id) {
+        ObjectSerializer<?>[] table = ids;
+        return id < 0 || id >= table.length ? null : (ObjectSerializer<T>) table[id];
+    }
+
+    /**
+     * <p>
+     * Gets the type id of the serializer of a type.</p>
+     *
+     * @param type the type to get the id for.
+     * @return     the type id, or -1 if the serializer does not exist or has no id.
+     */
+    public int idOf(Class<?> type) {
+        return lookup(type).id;
+    }
+
     /**
      * <p>
      * Checks if an serializer exists in the registry.</p>
-     * 
+     *
      * @param type the type of the serializer to check.
      * @return     true if the serializer exists, false otherwise.
      */
     public boolean hasSerializer(Class<?> type) {
-        return serializers.containsKey(type);
+        return find(type) != null;
     }
 
     /**
      * <p>
      * Checks if an serializer exists in the registry.</p>
-     * 
+     *
      * @param object the object to check the serializer for.
      * @return       true if the serializer exists, false otherwise.
      */
@@ -92,14 +190,16 @@ public final class SerializationRegistry {
      * <p>
      * Clears the registry.</p>
      */
-    public void clear() {
+    public synchronized void clear() {
         serializers.clear();
+        ids = new ObjectSerializer<?>[0];
+        version++;
     }
 
     /**
      * <p>
      * Gets the number of serializers in the registry.</p>
-     * 
+     *
      * @return the number of serializers in the registry.
      */
     public int size() {
@@ -109,11 +209,56 @@ public final class SerializationRegistry {
     /**
      * <p>
      * Checks if the registry is empty.</p>
-     * 
+     *
      * @return true if the registry is empty, false otherwise.
      */
     public boolean isEmpty() {
         return serializers.isEmpty();
     }
 
+    private Resolved lookup(Class<?> type) {
+        Resolved entry = resolved.get(type);
+        if (entry.version != version) {
+            // Registered or removed since it was cached
+            resolved.remove(type);
+            entry = resolved.get(type);
+        }
+        return entry;
+    }
+
+    private Resolved resolve(Class<?> type) {
+        // Read before the serializers, a registration in between leaves the entry stale
+        int current = version;
+
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            Registration registration = serializers.get(c);
+            if (registration != null) {
+                return new Resolved(current, registration.serializer, registration.id);
+            }
+        }
+
+        Queue<Class<?>> pending = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            pending.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        Class<?> next;
+        while ((next = pending.poll()) != null) {
+            if (!visited.add(next)) {
+                continue;
+            }
+            Registration registration = serializers.get(next);
+            if (registration != null) {
+                return new Resolved(current, registration.serializer, registration.id);
+            }
+            pending.addAll(Arrays.asList(next.getInterfaces()));
+        }
+
+        return new Resolved(current, null, -1);
+    }
+
+    private record Registration(ObjectSerializer<?> serializer, int id) {}
+
+    private record Resolved(int version, ObjectSerializer<?> serializer, int id) {}
+
 }
@@ -0,0 +1,77 @@
+package com.broman.streamio.table;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.broman.streamio.Memory;
+import com.broman.streamio.MemoryPool;
+import com.broman.streamio.Streamio;
+
+/**
+ * <p>
+ * A thread-safe memory lookup table with a fixed number of memory blocks.</p>
+ *
+ * <p>
+ * Blocks are installed with a compare-and-set, so several threads can
+ * allocate blocks of the same table without locking. When two threads race
+ * for the same block only one of them wins, see {@link #setIfAbsent(int, Memory)}.
+ * </p>
+ *
+ * <p>
+ * {@link #offer(MemoryPool)} and {@link #close()} must not run concurrently
+ * with other operations on this table.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class ConcurrentMemoryLookupTable implements MemoryLookupTable {
+
+    private final AtomicReferenceArray<Memory> table;
+
+    public ConcurrentMemoryLookupTable(long size, int blockSize) {
+        this.table = new AtomicReferenceArray<>(Streamio.blockIndexes(size, blockSize));
+    }
+
+    @Override
+    public int size() {
+        return table.length();
+    }
+
+    @Override
+    public Memory getAt(int index) {
+        return table.get(index);
+    }
+
+    @Override
+    public Memory setAt(int index, Memory memory) {
+        table.set(index, memory);
+        return memory;
+    }
+
+    @Override
+    public Memory setIfAbsent(int index, Memory memory) {
+        Memory current = table.compareAndExchange(index, null, memory);
+        return current == null ? memory : current;
+    }
+
+    @Override
+    public void offer(MemoryPool pool) {
+        for (int i = 0; i < table.length(); i++) {
+            Memory memory = table.getAndSet(i, null);
+            if (memory != null && pool != null) {
+                pool.offer(memory);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < table.length(); i++) {
+            Memory memory = table.getAndSet(i, null);
+            if (memory != null) {
+                memory.close();
+            }
+        }
+    }
+
+}
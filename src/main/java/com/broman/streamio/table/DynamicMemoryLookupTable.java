@@ -1,7 +1,5 @@
 package com.broman.streamio.table;
 
-import static java.util.Arrays.copyOf;
-
 import com.broman.streamio.Memory;
 import com.broman.streamio.MemoryPool;
 import com.broman.streamio.Streamio;
@@ -21,7 +19,7 @@ public class DynamicMemoryLookupTable implements MemoryLookupTable {
     public final int size;
     public final MemoryTable table;
 
-    public DynamicMemoryLookupTable(int maxSize, int blockSize) {
+    public DynamicMemoryLookupTable(long maxSize, int blockSize) {
         this.size = Streamio.blockIndexes(maxSize, blockSize);
         this.table = new MemoryTable(this.size, MemoryTable.DEFAULT_LOAD_FACTOR);
     }
@@ -105,7 +103,7 @@ public class DynamicMemoryLookupTable implements MemoryLookupTable {
         void put(int key, Memory val) {
             if (table.length != maxSize) {
                 if (((size + 1f) / table.length) > loadFactor) {
-                    table = copyOf(table, Math.min(maxSize, table.length * 2));
+                    resize(Math.min(maxSize, table.length * 2));
                 }
             }
 
@@ -151,11 +149,28 @@ public class DynamicMemoryLookupTable implements MemoryLookupTable {
 
         void clear() {
             table = new MemoryEntry[Math.min(DEFAULT_SIZE, maxSize)];
+            size = 0;
+        }
+
+        private void resize(int length) {
+            MemoryEntry[] entries = table;
+            table = new MemoryEntry[length];
+
+            // Keys must be rehashed, their bucket depends on the table length
+            for (MemoryEntry entry : entries) {
+                while (entry != null) {
+                    MemoryEntry next = entry.next;
+                    int index = entry.key % length;
+                    entry.next = table[index];
+                    table[index] = entry;
+                    entry = next;
+                }
+            }
         }
 
         protected void offer(MemoryPool pool) {
             for (MemoryEntry entry : table) {
-                if (entry != null) {
+                for (; entry != null; entry = entry.next) {
                     pool.offer(entry.val);
                 }
             }
@@ -163,7 +178,7 @@ public class DynamicMemoryLookupTable implements MemoryLookupTable {
 
         public void close() {
             for (MemoryEntry entry : table) {
-                if (entry != null) {
+                for (; entry != null; entry = entry.next) {
                     entry.val.close();
                 }
             }
@@ -0,0 +1,116 @@
+package com.broman.streamio.table;
+
+import com.broman.streamio.Memory;
+import com.broman.streamio.MemoryPool;
+import com.broman.streamio.Streamio;
+import com.broman.streamio.memory.MappedMemory;
+import com.broman.streamio.memory.MappedMemoryAllocator;
+
+/**
+ * <p>
+ * A memory lookup table whose memory blocks are regions of a mapped file.</p>
+ *
+ * <p>
+ * Blocks are mapped lazily, so only the touched regions of the file are ever
+ * mapped. A lookup maps a block only if the file already reaches it, blocks
+ * beyond the end of the file are mapped by {@link #createAt(int)}, which
+ * grows the file, so reading unwritten regions keeps them sparse. The file is
+ * the storage of the blocks, which means they are never offered to a memory
+ * pool.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class MappedMemoryLookupTable implements MemoryLookupTable {
+
+    private final MappedMemoryAllocator allocator;
+    private final long position;
+    private final long size;
+    private final int blockSize;
+    private Memory[] table;
+    // The size of the file, which only grows by mapping blocks past its end
+    private long length;
+
+    public MappedMemoryLookupTable(MappedMemoryAllocator allocator, long size, int blockSize) {
+        this(allocator, 0, size, blockSize);
+    }
+
+    /**
+     * @param allocator the allocator mapping the regions of the file.
+     * @param position  the position within the file where the first block starts.
+     * @param size      the size in bytes covered by this table.
+     * @param blockSize the size in bytes of each block.
+     */
+    public MappedMemoryLookupTable(MappedMemoryAllocator allocator, long position, long size, int blockSize) {
+        this.allocator = allocator;
+        this.position = position;
+        this.size = size;
+        this.blockSize = blockSize;
+        this.table = new Memory[Streamio.blockIndexes(size, blockSize)];
+        this.length = allocator.size();
+    }
+
+    @Override
+    public int size() {
+        return table.length;
+    }
+
+    @Override
+    public Memory getAt(int index) {
+        Memory memory = table[index];
+        if (memory == null && position + (long) index * blockSize < length) {
+            // The file already holds content of the block
+            memory = map(index);
+        }
+        return memory;
+    }
+
+    @Override
+    public Memory createAt(int index) {
+        Memory memory = table[index];
+        if (memory == null) {
+            memory = map(index);
+        }
+        return memory;
+    }
+
+    private Memory map(int index) {
+        long offset = (long) index * blockSize;
+        int length = (int) Math.min(blockSize, size - offset);
+        Memory memory = table[index] = allocator.allocate(position + offset, length);
+        this.length = Math.max(this.length, position + offset + length);
+        return memory;
+    }
+
+    @Override
+    public Memory setAt(int index, Memory memory) {
+        throw new UnsupportedOperationException("Cannot set memory in a mapped memory lookup table.");
+    }
+
+    @Override
+    public void force() {
+        for (Memory memory : table) {
+            if (memory != null) {
+                ((MappedMemory) memory).force();
+            }
+        }
+    }
+
+    @Override
+    public void offer(MemoryPool pool) {
+        // Mapped blocks belong to the file, they are released on close
+    }
+
+    @Override
+    public void close() {
+        for (Memory memory : table) {
+            if (memory != null) {
+                memory.close();
+            }
+        }
+        table = new Memory[0];
+        allocator.close();
+    }
+
+}
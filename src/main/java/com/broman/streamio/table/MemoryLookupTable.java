@@ -42,6 +42,48 @@ public interface MemoryLookupTable extends AutoCloseable {
      */
     Memory setAt(int index, Memory memory);
 
+    /**
+     * <p>
+     * Set a memory block at certain index of this table, unless there is
+     * already one.</p>
+     *
+     * <p>
+     * The default implementation is not atomic, tables shared between threads
+     * must override it so only one of several concurrent calls installs its
+     * memory block. Callers must release the provided block when it is not
+     * the one returned.
+     * </p>
+     *
+     * @param index the index where to set the new value.
+     * @param memory the memory block.
+     * @return the memory block found at the index, or the provided one if there was none.
+     */
+    default Memory setIfAbsent(int index, Memory memory) {
+        Memory current = getAt(index);
+        if (current != null) {
+            return current;
+        }
+        return setAt(index, memory);
+    }
+
+    /**
+     * <p>
+     * Create the memory block at certain index of this table, for tables
+     * that provide their own memory blocks instead of storing the ones
+     * allocated by the stream.</p>
+     *
+     * <p>
+     * The default implementation returns null, so the stream allocates the
+     * block and stores it with {@link #setIfAbsent(int, Memory)}.
+     * </p>
+     *
+     * @param index the index where to create the memory block.
+     * @return the memory block at the index, or null if the stream must allocate it.
+     */
+    default Memory createAt(int index) {
+        return null;
+    }
+
     /**
      * <p>
      * Offer all the memory blocks of this table to a pool.</p>
@@ -53,4 +95,16 @@ public interface MemoryLookupTable extends AutoCloseable {
      */
     void offer(MemoryPool pool);
 
+    /**
+     * <p>
+     * Write the memory blocks of this table to the storage device backing them.</p>
+     *
+     * <p>
+     * The default implementation does nothing, since memory blocks are not
+     * backed by any storage device unless stated by the implementation.
+     * </p>
+     */
+    default void force() {
+    }
+
 }
@@ -15,7 +15,7 @@ public class StaticMemoryLookupTable implements MemoryLookupTable {
 
     private Memory[] table;
 
-    public StaticMemoryLookupTable(int size, int blockSize) {
+    public StaticMemoryLookupTable(long size, int blockSize) {
         this(new Memory[Streamio.blockIndexes(size, blockSize)]);
     }
 
@@ -43,7 +43,9 @@ public class StaticMemoryLookupTable implements MemoryLookupTable {
     public void offer(MemoryPool pool) {
         if (pool != null) {
             for (Memory memory : table) {
-                pool.offer(memory);
+                if (memory != null) {
+                    pool.offer(memory);
+                }
             }
         }
         table = new Memory[0];
@@ -52,7 +54,9 @@ public class StaticMemoryLookupTable implements MemoryLookupTable {
     @Override
     public void close() {
         for (Memory memory : table) {
-            memory.close();
+            if (memory != null) {
+                memory.close();
+            }
         }
         table = new Memory[0];
     }
@@ -0,0 +1,243 @@
+package com.broman.streamio.memory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.Objects;
+
+import com.broman.streamio.Memory;
+
+/**
+ * <p>
+ * A native memory backed by a {@link MemorySegment}.</p>
+ *
+ * <p>
+ * Every access is bounds-checked by the segment, and bulk operations are
+ * delegated to {@link MemorySegment#copy} and {@link MemorySegment#fill},
+ * which the JIT turns into vectorized loops. When this memory owns an
+ * {@link Arena}, closing it closes the arena and releases the segment.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class SegmentMemory extends Memory {
+
+    private final static ValueLayout.OfShort SHORT_BE = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private final static ValueLayout.OfShort SHORT_LE = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private final static ValueLayout.OfInt INT_BE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private final static ValueLayout.OfInt INT_LE = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private final static ValueLayout.OfLong LONG_BE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private final static ValueLayout.OfLong LONG_LE = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private MemorySegment segment;
+    private Arena arena;
+
+    public SegmentMemory(MemorySegment segment) {
+        this(segment, null);
+    }
+
+    /**
+     * @param segment the segment to be used as memory.
+     * @param arena   the arena to close along with this memory, or null.
+     */
+    public SegmentMemory(MemorySegment segment, Arena arena) {
+        if (segment == null) {
+            throw new IllegalArgumentException("Segment cannot be null");
+        }
+        if (!segment.isNative()) {
+            throw new IllegalArgumentException("segment is not native");
+        }
+        if (segment.byteSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must not exceed " + Integer.MAX_VALUE + " bytes");
+        }
+        this.segment = segment;
+        this.arena = arena;
+    }
+
+    /**
+     * @return the segment backing this memory.
+     */
+    public MemorySegment segment() {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return segment;
+    }
+
+    @Override
+    public int size() {
+        return segment == null ? 0 : (int) segment.byteSize();
+    }
+
+    @Override
+    public MemoryType getType() {
+        return MemoryType.NATIVE;
+    }
+
+    @Override
+    public byte get(int index) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return segment.get(ValueLayout.JAVA_BYTE, index);
+    }
+
+    @Override
+    public void put(int index, byte value) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        segment.set(ValueLayout.JAVA_BYTE, index, value);
+    }
+
+    @Override
+    public short getShort(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? SHORT_BE : SHORT_LE, index);
+    }
+
+    @Override
+    public void putShort(int index, short value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        segment.set(order == ByteOrder.BIG_ENDIAN ? SHORT_BE : SHORT_LE, index, value);
+    }
+
+    @Override
+    public int getInt(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? INT_BE : INT_LE, index);
+    }
+
+    @Override
+    public void putInt(int index, int value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        segment.set(order == ByteOrder.BIG_ENDIAN ? INT_BE : INT_LE, index, value);
+    }
+
+    @Override
+    public long getLong(int index, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return segment.get(order == ByteOrder.BIG_ENDIAN ? LONG_BE : LONG_LE, index);
+    }
+
+    @Override
+    public void putLong(int index, long value, ByteOrder order) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        segment.set(order == ByteOrder.BIG_ENDIAN ? LONG_BE : LONG_LE, index, value);
+    }
+
+    @Override
+    public void get(int index, byte[] dst, int offset, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, index, dst, offset, length);
+    }
+
+    @Override
+    public void put(int index, byte[] src, int offset, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        MemorySegment.copy(src, offset, segment, ValueLayout.JAVA_BYTE, index, length);
+    }
+
+    @Override
+    public void get(int index, ByteBuffer dst, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, length, size());
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        int position = dst.position();
+        MemorySegment.copy(segment, index, MemorySegment.ofBuffer(dst), 0, length);
+        dst.position(position + length);
+    }
+
+    @Override
+    public void put(int index, ByteBuffer src, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        Objects.checkFromIndexSize(index, length, size());
+        if (src.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+
+        int position = src.position();
+        MemorySegment.copy(MemorySegment.ofBuffer(src), 0, segment, index, length);
+        src.position(position + length);
+    }
+
+    @Override
+    public void copyTo(int index, Memory dst, int dstIndex, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        if (dst instanceof SegmentMemory memory) {
+            MemorySegment.copy(segment, index, memory.segment(), dstIndex, length);
+        } else if (dst.hasArray()) {
+            MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, index, dst.array(), dstIndex, length);
+        } else {
+            super.copyTo(index, dst, dstIndex, length);
+        }
+    }
+
+    @Override
+    public void fill(int index, int length, byte value) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        segment.asSlice(index, length).fill(value);
+    }
+
+    @Override
+    public ByteBuffer buffer(int index, int length) {
+        if (closed()) {
+            throw new IllegalStateException("Memory is closed");
+        }
+        return segment.asSlice(index, length).asByteBuffer();
+    }
+
+    @Override
+    public boolean hasBuffer() {
+        return segment != null;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+
+        if (arena != null) {
+            arena.close();
+        }
+
+        segment = null;
+        arena = null;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.broman.streamio.memory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+
+import com.broman.streamio.Memory;
+import com.broman.streamio.MemoryAllocator;
+
+/**
+ * <p>
+ * A native memory allocator built on the Foreign Function & Memory API.</p>
+ *
+ * <p>
+ * By default every block gets its own arena, released as soon as the block
+ * is closed. Shared arenas let any thread use and close the block, confined
+ * ones are cheaper to close but only usable by the thread that allocated
+ * the block. An allocator created with an arena allocates every block from
+ * it instead, and closing the allocator releases all of them at once.
+ * </p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+public class SegmentMemoryAllocator implements MemoryAllocator, AutoCloseable {
+
+    private final static long ALIGNMENT = 8;
+
+    private final boolean shared;
+    private final Arena arena;
+
+    public SegmentMemoryAllocator() {
+        this(true);
+    }
+
+    /**
+     * @param shared whether the blocks can be used by any thread.
+     */
+    public SegmentMemoryAllocator(boolean shared) {
+        this.shared = shared;
+        this.arena = null;
+    }
+
+    /**
+     * @param arena the arena every block is allocated from.
+     */
+    public SegmentMemoryAllocator(Arena arena) {
+        if (arena == null) {
+            throw new IllegalArgumentException("Arena cannot be null");
+        }
+        this.shared = false;
+        this.arena = arena;
+    }
+
+    @Override
+    public MemoryType getType() {
+        return MemoryType.NATIVE;
+    }
+
+    @Override
+    public Memory allocate(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+        if (arena != null) {
+            return new SegmentMemory(arena.allocate(size, ALIGNMENT));
+        }
+        Arena owned = shared ? Arena.ofShared() : Arena.ofConfined();
+        return new SegmentMemory(owned.allocate(size, ALIGNMENT), owned);
+    }
+
+    @Override
+    public Memory allocate(byte[] array) {
+        throw new RuntimeException("Byte arrays cannot be allocated as native memory.");
+    }
+
+    @Override
+    public Memory allocate(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new RuntimeException("Only direct buffers can be allocated as native memory.");
+        }
+        return new SegmentMemory(MemorySegment.ofBuffer(buffer));
+    }
+
+    /**
+     * <p>
+     * Close the arena blocks are allocated from, if any.</p>
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+        }
+    }
+
+}
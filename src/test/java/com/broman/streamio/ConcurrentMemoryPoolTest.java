@@ -0,0 +1,78 @@
+package com.broman.streamio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.broman.streamio.memory.HeapMemoryAllocator;
+import com.broman.streamio.memory.MemoryType;
+
+public class ConcurrentMemoryPoolTest {
+
+    private final static int SIZE = 64;
+    private final static int MAGAZINE_SIZE = 4;
+    private final static int THREADS = 8;
+
+    @Test
+    public void blocksOfExitedThreadsReturnToThePool() throws Exception {
+        ConcurrentMemoryPool pool = new ConcurrentMemoryPool(SIZE, MemoryType.HEAP, MAGAZINE_SIZE, 256, 1024);
+        HeapMemoryAllocator allocator = new HeapMemoryAllocator();
+        Set<Memory> blocks = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        churn(pool, allocator, blocks);
+        assertEquals(THREADS * MAGAZINE_SIZE, blocks.size());
+
+        // Every worker left a full magazine behind, the pool must serve them again
+        int recovered = 0;
+        for (int attempt = 0; attempt < 200 && recovered < THREADS * MAGAZINE_SIZE; attempt++) {
+            if (blocks.remove(pool.get(allocator))) {
+                recovered++;
+            } else {
+                // Not collected yet
+                System.gc();
+                Thread.sleep(10);
+            }
+        }
+        assertEquals(THREADS * MAGAZINE_SIZE, recovered);
+        pool.close();
+    }
+
+    @Test
+    public void blocksOfLiveThreadsStayInTheirMagazine() {
+        ConcurrentMemoryPool pool = new ConcurrentMemoryPool(SIZE, MemoryType.HEAP, MAGAZINE_SIZE, 256, 1024);
+        HeapMemoryAllocator allocator = new HeapMemoryAllocator();
+
+        Memory memory = pool.get(allocator);
+        pool.offer(memory);
+        assertTrue(memory == pool.get(allocator));
+        pool.offer(memory);
+        pool.close();
+        assertTrue(memory.closed());
+    }
+
+    /**
+     * Run threads that each take a magazine of blocks and give them back before exiting.
+     */
+    private static void churn(ConcurrentMemoryPool pool, MemoryAllocator allocator, Set<Memory> blocks) throws InterruptedException {
+        for (int i = 0; i < THREADS; i++) {
+            Thread worker = new Thread(() -> {
+                Memory[] taken = new Memory[MAGAZINE_SIZE];
+                for (int j = 0; j < taken.length; j++) {
+                    taken[j] = pool.get(allocator);
+                    blocks.add(taken[j]);
+                }
+                for (Memory memory : taken) {
+                    pool.offer(memory);
+                }
+            });
+            worker.start();
+            worker.join();
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.broman.streamio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import com.broman.streamio.io.Flyweight;
+import com.broman.streamio.io.MemoryEncoding;
+import com.broman.streamio.io.MemoryIndex;
+import com.broman.streamio.io.SimpleMemoryReader;
+import com.broman.streamio.io.SimpleMemoryWriter;
+import com.broman.streamio.memory.MemoryType;
+
+public class StreamioTest {
+
+    private final static int SIZE = 256;
+    private final static int BLOCK_SIZE = 64;
+
+    @Test
+    public void closedStreamsRejectEveryAccessor() throws Exception {
+        BasicMemoryPool pool = new BasicMemoryPool(BLOCK_SIZE, MemoryType.HEAP);
+        Streamio stream = Streamio.heap(SIZE, BLOCK_SIZE);
+        stream.useMemoryPool(pool);
+
+        IStreamio accessor = stream.accessor();
+        IStreamio threadLocal = Streamio.concurrent(SIZE, BLOCK_SIZE, stream.allocator());
+        SimpleMemoryWriter writer = new SimpleMemoryWriter(stream, MemoryEncoding.BIG_ENDIAN);
+        SimpleMemoryReader reader = new SimpleMemoryReader(stream, new MemoryIndex(0), MemoryEncoding.BIG_ENDIAN);
+        Pair pair = new Pair();
+
+        writer.writeLong(1);
+        writer.writeLong(2);
+        // Every accessor resolves the first block before the stream is closed
+        assertEquals(1, accessor.getLong(0, ByteOrder.BIG_ENDIAN));
+        assertEquals(1, reader.readLong());
+        assertEquals(1, pair.wrap(stream, 0).first());
+        threadLocal.put(0, (byte) 1);
+
+        stream.close();
+        threadLocal.close();
+        assertTrue(stream.closed());
+        assertTrue(accessor.closed());
+
+        // The pool hands the blocks to another stream
+        Streamio other = Streamio.heap(SIZE, BLOCK_SIZE);
+        other.useMemoryPool(pool);
+        other.putLong(0, -1, ByteOrder.BIG_ENDIAN);
+        other.putLong(8, -1, ByteOrder.BIG_ENDIAN);
+
+        assertClosed(() -> stream.get(0));
+        assertClosed(() -> stream.put(1, (byte) 0));
+        assertClosed(() -> stream.get(0, new byte[8], 0, 8));
+        assertClosed(() -> accessor.get(1));
+        assertClosed(() -> accessor.putLong(8, 0, ByteOrder.BIG_ENDIAN));
+        assertClosed(() -> threadLocal.get(0));
+        assertClosed(() -> reader.readLong());
+        assertClosed(() -> writer.writeLong(3));
+        assertClosed(() -> pair.second());
+
+        assertEquals(-1, other.getLong(0, ByteOrder.BIG_ENDIAN));
+        assertEquals(-1, other.getLong(8, ByteOrder.BIG_ENDIAN));
+        // Closing again does not offer the blocks twice
+        stream.close();
+        other.close();
+    }
+
+    private static void assertClosed(Runnable access) {
+        try {
+            access.run();
+            fail("Access to a closed stream");
+        } catch (IllegalStateException exception) {
+            assertEquals("Stream is closed", exception.getMessage());
+        }
+    }
+
+    private final static class Pair extends Flyweight {
+
+        @Override
+        public int length() {
+            return 16;
+        }
+
+        long first() {
+            return getLong(0);
+        }
+
+        long second() {
+            return getLong(8);
+        }
+
+        @Override
+        public Pair wrap(IStreamio streamio, int offset) {
+            super.wrap(streamio, offset);
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.broman.streamio.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.broman.streamio.Streamio;
+import com.broman.streamio.serialization.GeneratedSerializer;
+import com.broman.streamio.serialization.SerializationRegistry;
+
+public class ObjectGraphTest {
+
+    public static class Node {
+        String name;
+        Node next;
+        Leaf left;
+        Leaf right;
+        Pair pair;
+    }
+
+    public static class Leaf {
+        int value;
+    }
+
+    public record Pair(Node node, Leaf leaf) {}
+
+    private final SerializationRegistry registry = new SerializationRegistry();
+    private final Streamio stream = Streamio.heap(1 << 16, 64);
+    private final SimpleMemoryWriter writer = new SimpleMemoryWriter(stream, MemoryEncoding.VARINT);
+    private final SimpleMemoryReader reader = new SimpleMemoryReader(stream, MemoryEncoding.VARINT);
+
+    public ObjectGraphTest() {
+        registry.register(GeneratedSerializer.of(Node.class), 1);
+        registry.register(GeneratedSerializer.of(Leaf.class), 2);
+        registry.register(GeneratedSerializer.of(Pair.class), 3);
+        writer.setSerializers(registry);
+        reader.setSerializers(registry);
+    }
+
+    @Test
+    public void sharedObjectsAreReadOnce() {
+        Leaf leaf = leaf(7);
+        Node node = node("shared");
+        node.left = leaf;
+        node.right = leaf;
+
+        writer.writeGraph(node);
+        Node read = (Node) reader.readGraph();
+
+        assertEquals("shared", read.name);
+        assertEquals(7, read.left.value);
+        assertSame(read.left, read.right);
+        assertEquals(writer.getIndex().get(), reader.getIndex().get());
+    }
+
+    @Test
+    public void cyclesThroughGeneratedClassesAreRestored() {
+        Node first = node("first");
+        Node second = node("second");
+        first.next = second;
+        second.next = first;
+        Node self = node("self");
+        self.next = self;
+
+        writer.writeGraph(first);
+        writer.writeGraph(self);
+        Node read = (Node) reader.readGraph();
+        Node readSelf = (Node) reader.readGraph();
+
+        assertEquals("second", read.next.name);
+        assertSame(read, read.next.next);
+        assertSame(readSelf, readSelf.next);
+        // Graphs do not share handles
+        assertTrue(read != readSelf && read.next != readSelf);
+    }
+
+    @Test
+    public void nullsAreWrittenAsMarkers() {
+        Node node = node(null);
+
+        writer.writeGraph(null);
+        writer.writeGraph(node);
+        assertNull(reader.readGraph());
+        Node read = (Node) reader.readGraph();
+
+        assertNull(read.name);
+        assertNull(read.next);
+        assertNull(read.left);
+        assertNull(read.pair);
+        assertEquals(writer.getIndex().get(), reader.getIndex().get());
+    }
+
+    @Test
+    public void sharedRecordsAreReadOnce() {
+        Leaf leaf = leaf(3);
+        Pair pair = new Pair(null, leaf);
+        Node first = node("first");
+        Node second = node("second");
+        first.pair = pair;
+        first.next = second;
+        second.pair = pair;
+        second.left = leaf;
+
+        writer.writeGraph(first);
+        Node read = (Node) reader.readGraph();
+
+        assertSame(read.pair, read.next.pair);
+        assertSame(read.pair.leaf(), read.next.left);
+    }
+
+    @Test
+    public void referencesToRecordsBeingReadFail() {
+        // The record is only created after its components, the node cannot refer back to it
+        Node node = node("owned");
+        Pair pair = new Pair(node, leaf(1));
+        node.pair = pair;
+
+        writer.writeGraph(pair);
+        try {
+            reader.readGraph();
+            fail("Reference to a record being read");
+        } catch (IllegalStateException exception) {
+            assertTrue(exception.getMessage().contains("does not support cycles"));
+        }
+
+        // The reader leaves graph mode, the next graph is read from scratch
+        int start = writer.getIndex().get();
+        writer.writeGraph(node("next"));
+        reader.getIndex().set(start);
+        assertEquals("next", ((Node) reader.readGraph()).name);
+    }
+
+    private static Node node(String name) {
+        Node node = new Node();
+        node.name = name;
+        return node;
+    }
+
+    private static Leaf leaf(int value) {
+        Leaf leaf = new Leaf();
+        leaf.value = value;
+        return leaf;
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.broman.streamio.io.encoding;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.broman.streamio.Memory;
+import com.broman.streamio.Streamio;
+import com.broman.streamio.io.MemoryCursor;
+import com.broman.streamio.io.MemoryEncoding;
+import com.broman.streamio.io.MemoryIndex;
+import com.broman.streamio.io.SimpleMemoryReader;
+import com.broman.streamio.io.SimpleMemoryWriter;
+import com.broman.streamio.memory.HeapMemory;
+
+public class VarIntTest {
+
+    private final static VarInt VARINT = new VarInt();
+
+    private final static int[] INTS = {
+        0, 1, 127, 128, (1 << 14) - 1, 1 << 14, (1 << 21) - 1, 1 << 21, (1 << 28) - 1, 1 << 28,
+        -1, -64, 64, Integer.MIN_VALUE, Integer.MAX_VALUE
+    };
+
+    private final static long[] LONGS = {
+        0, 1, 127, 128, (1L << 21) - 1, 1L << 28, (1L << 35) - 1, 1L << 42, (1L << 49) - 1,
+        (1L << 56) - 1, 1L << 56, (1L << 63) - 1, 1L << 63, -1, Integer.MIN_VALUE, Integer.MAX_VALUE
+    };
+
+    @Test
+    public void intBoundariesMatchTheScalarCodec() {
+        for (boolean zigzag : new boolean[]{false, true}) {
+            byte[] expected = scalar(INTS, zigzag);
+            Memory memory = new HeapMemory(256);
+
+            assertEquals(INTS.length, VARINT.writeVarInts(INTS, 0, INTS.length, zigzag, cursor(memory, 0, 256)));
+            assertArrayEquals(expected, bytes(memory, 0, expected.length));
+
+            int[] decoded = new int[INTS.length];
+            assertEquals(INTS.length, VARINT.readVarInts(decoded, 0, decoded.length, zigzag, cursor(memory, 0, 256)));
+            assertArrayEquals(INTS, decoded);
+        }
+    }
+
+    @Test
+    public void longBoundariesMatchTheScalarCodec() {
+        for (boolean zigzag : new boolean[]{false, true}) {
+            byte[] expected = scalar(LONGS, zigzag);
+            Memory memory = new HeapMemory(256);
+
+            assertEquals(LONGS.length, VARINT.writeVarLongs(LONGS, 0, LONGS.length, zigzag, cursor(memory, 0, 256)));
+            assertArrayEquals(expected, bytes(memory, 0, expected.length));
+
+            long[] decoded = new long[LONGS.length];
+            assertEquals(LONGS.length, VARINT.readVarLongs(decoded, 0, decoded.length, zigzag, cursor(memory, 0, 256)));
+            assertArrayEquals(LONGS, decoded);
+        }
+    }
+
+    @Test
+    public void intsInTheLastBytesOfABlock() {
+        for (int tail = 1; tail <= 9; tail++) {
+            for (int value : INTS) {
+                byte[] encoded = scalar(new int[]{value}, false);
+                if (encoded.length > tail) {
+                    continue;
+                }
+                int start = 64 - tail;
+
+                // Either encoded as the scalar codec does, or left to the caller
+                Memory memory = new HeapMemory(64);
+                MemoryCursor cursor = cursor(memory, start, 64);
+                int written = VARINT.writeVarInts(new int[]{value}, 0, 1, false, cursor);
+                if (written == 1) {
+                    assertArrayEquals(encoded, bytes(memory, start, encoded.length));
+                } else {
+                    assertEquals(0, written);
+                    assertEquals(start, cursor.offset());
+                }
+
+                memory.put(start, encoded, 0, encoded.length);
+                int[] decoded = new int[1];
+                cursor = cursor(memory, start, 64);
+                int read = VARINT.readVarInts(decoded, 0, 1, false, cursor);
+                if (read == 1) {
+                    assertEquals(value, decoded[0]);
+                    assertEquals(start + encoded.length, cursor.offset());
+                } else {
+                    assertEquals(0, read);
+                    assertEquals(start, cursor.offset());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void longsInTheLastBytesOfABlock() {
+        for (int tail = 1; tail <= 9; tail++) {
+            for (long value : LONGS) {
+                byte[] encoded = scalar(new long[]{value}, false);
+                if (encoded.length > tail) {
+                    continue;
+                }
+                int start = 64 - tail;
+
+                Memory memory = new HeapMemory(64);
+                MemoryCursor cursor = cursor(memory, start, 64);
+                int written = VARINT.writeVarLongs(new long[]{value}, 0, 1, false, cursor);
+                if (written == 1) {
+                    assertArrayEquals(encoded, bytes(memory, start, encoded.length));
+                } else {
+                    assertEquals(0, written);
+                    assertEquals(start, cursor.offset());
+                }
+
+                memory.put(start, encoded, 0, encoded.length);
+                long[] decoded = new long[1];
+                cursor = cursor(memory, start, 64);
+                int read = VARINT.readVarLongs(decoded, 0, 1, false, cursor);
+                if (read == 1) {
+                    assertEquals(value, decoded[0]);
+                    assertEquals(start + encoded.length, cursor.offset());
+                } else {
+                    assertEquals(0, read);
+                    assertEquals(start, cursor.offset());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void streamsRoundTripAcrossBlockEnds() {
+        // Every alignment of the values against the end of a block, with the scalar fallbacks in between
+        int blockSize = 16;
+        for (int padding = 0; padding < blockSize; padding++) {
+            for (boolean zigzag : new boolean[]{false, true}) {
+                Streamio streamio = Streamio.heap(1024, blockSize);
+                SimpleMemoryWriter writer = new SimpleMemoryWriter(streamio, MemoryEncoding.VARINT);
+                writer.getIndex().set(padding);
+                if (zigzag) {
+                    writer.writeZigZagInts(INTS);
+                    writer.writeZigZagLongs(LONGS);
+                } else {
+                    writer.writeVarInts(INTS);
+                    writer.writeVarLongs(LONGS);
+                }
+
+                byte[] ints = scalar(INTS, zigzag);
+                byte[] longs = scalar(LONGS, zigzag);
+                assertEquals(padding + ints.length + longs.length, writer.getIndex().get());
+                assertArrayEquals(ints, streamio.array(padding, padding + ints.length - 1));
+                assertArrayEquals(longs, streamio.array(padding + ints.length, padding + ints.length + longs.length - 1));
+
+                SimpleMemoryReader reader = new SimpleMemoryReader(streamio, MemoryEncoding.VARINT);
+                reader.getIndex().set(padding);
+                int[] decodedInts = new int[INTS.length];
+                long[] decodedLongs = new long[LONGS.length];
+                if (zigzag) {
+                    reader.readZigZagInts(decodedInts, decodedInts.length);
+                    reader.readZigZagLongs(decodedLongs, decodedLongs.length);
+                } else {
+                    reader.readVarInts(decodedInts, decodedInts.length);
+                    reader.readVarLongs(decodedLongs, decodedLongs.length);
+                }
+                assertArrayEquals(INTS, decodedInts);
+                assertArrayEquals(LONGS, decodedLongs);
+                assertEquals(writer.getIndex().get(), reader.getIndex().get());
+                streamio.close();
+            }
+        }
+    }
+
+    @Test
+    public void scalarReadsDecodeBulkWrites() {
+        Memory memory = new HeapMemory(256);
+        VARINT.writeVarLongs(LONGS, 0, LONGS.length, false, cursor(memory, 0, 256));
+        MemoryCursor cursor = cursor(memory, 0, 256);
+        for (long value : LONGS) {
+            assertEquals(value, VARINT.readVarLong(cursor));
+        }
+        assertTrue(cursor.offset() > 0);
+    }
+
+    private static MemoryCursor cursor(Memory memory, int offset, int limit) {
+        MemoryCursor cursor = new MemoryCursor();
+        cursor.set(memory, 0, offset, limit);
+        return cursor;
+    }
+
+    private static byte[] bytes(Memory memory, int offset, int length) {
+        byte[] bytes = new byte[length];
+        memory.get(offset, bytes, 0, length);
+        return bytes;
+    }
+
+    private static byte[] scalar(int[] values, boolean zigzag) {
+        Streamio streamio = Streamio.heap(1024, 1024);
+        MemoryIndex index = new MemoryIndex(0);
+        for (int value : values) {
+            VARINT.writeVarInt(zigzag ? VARINT.zigzagEncode(value) : value, streamio, index);
+        }
+        return Arrays.copyOf(streamio.array(0, index.get() - 1), index.get());
+    }
+
+    private static byte[] scalar(long[] values, boolean zigzag) {
+        Streamio streamio = Streamio.heap(1024, 1024);
+        MemoryIndex index = new MemoryIndex(0);
+        for (long value : values) {
+            VARINT.writeVarLong(zigzag ? VARINT.zigzagEncode(value) : value, streamio, index);
+        }
+        return Arrays.copyOf(streamio.array(0, index.get() - 1), index.get());
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.broman.streamio.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.Streamio;
+import com.broman.streamio.io.MemoryEncoding;
+import com.broman.streamio.io.MemoryIndex;
+import com.broman.streamio.io.SimpleMemoryReader;
+import com.broman.streamio.io.SimpleMemoryWriter;
+import com.broman.streamio.io.encoding.IntEncoding;
+
+/**
+ * <p>
+ * {@link SimpleMemoryWriter} and {@link SimpleMemoryReader} with each
+ * {@link IntEncoding}, with {@link ByteBuffer} baselines.</p>
+ *
+ * <p>
+ * Each benchmark writes or reads {@link #count} values, so scores are per batch.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"BIG_ENDIAN", "LITTLE_ENDIAN", "VARINT"})
+    public String encoding;
+
+    @Param({"heap", "direct"})
+    public String memory;
+
+    @Param({"4096"})
+    public int count;
+
+    private Streamio streamio;
+    private SimpleMemoryWriter writer;
+    private SimpleMemoryReader reader;
+    private ByteBuffer buffer;
+    private int[] ints;
+    private int[] decoded;
+    private long[] longs;
+    private long[] decodedLongs;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        IntEncoding intEncoding = (IntEncoding) MemoryEncoding.class.getField(encoding).get(null);
+        boolean heap = memory.equals("heap");
+        // Ints first, longs after them, leaving room for the longest varints
+        int size = count * (Long.BYTES + 10);
+
+        streamio = heap ? Streamio.heap(size, 1024) : Streamio.direct(size, 1024);
+        writer = new SimpleMemoryWriter(streamio, intEncoding);
+        reader = new SimpleMemoryReader(streamio, intEncoding);
+        buffer = heap ? ByteBuffer.allocate(size) : ByteBuffer.allocateDirect(size);
+        if (encoding.equals("LITTLE_ENDIAN")) {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        Random random = new Random(42);
+        ints = new int[count];
+        decoded = new int[count];
+        longs = new long[count];
+        decodedLongs = new long[count];
+        for (int i = 0; i < count; i++) {
+            // Mostly small values, as VarInt is meant for
+            ints[i] = random.nextInt(1 << random.nextInt(31));
+            longs[i] = random.nextLong() >>> random.nextInt(64);
+        }
+
+        writeInts();
+        writeLongs();
+    }
+
+    @TearDown
+    public void tearDown() {
+        streamio.close();
+    }
+
+    @Benchmark
+    public MemoryIndex writeInts() {
+        writer.getIndex().set(0);
+        for (int value : ints) {
+            writer.writeInt(value);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public int readInts() {
+        reader.getIndex().set(0);
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += reader.readInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public MemoryIndex writeLongs() {
+        writer.getIndex().set(count * Long.BYTES);
+        for (long value : longs) {
+            writer.writeLong(value);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public long readLongs() {
+        reader.getIndex().set(count * Long.BYTES);
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += reader.readLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public MemoryIndex writeVarIntArray() {
+        // Always varints, compare with writeInts under VARINT
+        writer.getIndex().set(0);
+        writer.writeVarInts(ints);
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public int[] readVarIntArray() {
+        reader.getIndex().set(0);
+        reader.readVarInts(decoded, count);
+        return decoded;
+    }
+
+    @Benchmark
+    public MemoryIndex writeLongArray() {
+        // Same bytes as writeLongs
+        writer.getIndex().set(count * Long.BYTES);
+        writer.writeLongs(longs, 0, count);
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public long[] readLongArray() {
+        reader.getIndex().set(count * Long.BYTES);
+        reader.readLongs(decodedLongs, 0, count);
+        return decodedLongs;
+    }
+
+    @Benchmark
+    public ByteBuffer bufferWriteInts() {
+        buffer.clear();
+        for (int value : ints) {
+            buffer.putInt(value);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public int bufferReadInts() {
+        buffer.clear();
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += buffer.getInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ByteBuffer bufferWriteLongs() {
+        buffer.clear();
+        for (long value : longs) {
+            buffer.putLong(value);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public long bufferReadLongs() {
+        buffer.clear();
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += buffer.getLong();
+        }
+        return sum;
+    }
+
+}
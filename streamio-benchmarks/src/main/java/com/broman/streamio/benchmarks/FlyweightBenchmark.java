@@ -0,0 +1,150 @@
+package com.broman.streamio.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.Streamio;
+import com.broman.streamio.io.Flyweight;
+import com.broman.streamio.io.MemoryReader;
+import com.broman.streamio.io.MemoryWriter;
+import com.broman.streamio.io.SimpleMemoryReader;
+import com.broman.streamio.io.SimpleMemoryWriter;
+import com.broman.streamio.serialization.ObjectSerializer;
+
+/**
+ * <p>
+ * Fixed layout messages read into new objects by an {@link ObjectSerializer}
+ * against read in place by a {@link Flyweight}.</p>
+ *
+ * <p>
+ * Each benchmark reads {@link #count} messages, so scores are per batch. Run
+ * with {@code -prof gc} to see the allocation rate of each.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlyweightBenchmark {
+
+    public record Quote(long instrument, double price, int size, boolean buy) {}
+
+    private final static class QuoteSerializer implements ObjectSerializer<Quote> {
+
+        @Override
+        public Class<Quote> getType() {
+            return Quote.class;
+        }
+
+        @Override
+        public void serialize(Quote object, MemoryWriter writer) {
+            writer.writeLong(object.instrument());
+            writer.writeDouble(object.price());
+            writer.writeInt(object.size());
+            writer.writeBoolean(object.buy());
+        }
+
+        @Override
+        public Quote unserialize(MemoryReader reader) {
+            return new Quote(reader.readLong(), reader.readDouble(), reader.readInt(), reader.readBoolean());
+        }
+
+    }
+
+    private final static class QuoteFlyweight extends Flyweight {
+
+        @Override
+        public int length() {
+            return 21;
+        }
+
+        public long instrument() {
+            return getLong(0);
+        }
+
+        public double price() {
+            return getDouble(8);
+        }
+
+        public int size() {
+            return getInt(16);
+        }
+
+        public boolean buy() {
+            return getBoolean(20);
+        }
+
+    }
+
+    @Param({"1024"})
+    public int count;
+
+    private Streamio streamio;
+    private SimpleMemoryReader reader;
+    private QuoteSerializer serializer;
+    private QuoteFlyweight flyweight;
+
+    @Setup
+    public void setup() {
+        streamio = Streamio.heap(count * 32, 1024);
+        SimpleMemoryWriter writer = new SimpleMemoryWriter(streamio);
+        reader = new SimpleMemoryReader(streamio);
+        serializer = new QuoteSerializer();
+        flyweight = new QuoteFlyweight();
+
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            writer.writeObject(new Quote(random.nextInt(64), random.nextDouble() * 100, random.nextInt(1000),
+                    random.nextBoolean()), serializer);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        streamio.close();
+    }
+
+    @Benchmark
+    public double object() {
+        reader.getIndex().set(0);
+        double notional = 0;
+        for (int i = 0; i < count; i++) {
+            Quote quote = reader.readObject(serializer);
+            if (quote.buy()) {
+                notional += quote.price() * quote.size();
+            }
+        }
+        return notional;
+    }
+
+    @Benchmark
+    public double flyweight() {
+        reader.getIndex().set(0);
+        double notional = 0;
+        for (int i = 0; i < count; i++) {
+            reader.readFlyweight(flyweight);
+            if (flyweight.buy()) {
+                notional += flyweight.price() * flyweight.size();
+            }
+        }
+        return notional;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.broman.streamio.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.Memory;
+import com.broman.streamio.memory.HeapMemory;
+import com.broman.streamio.table.ConcurrentMemoryLookupTable;
+import com.broman.streamio.table.DynamicMemoryLookupTable;
+import com.broman.streamio.table.MemoryLookupTable;
+import com.broman.streamio.table.StaticMemoryLookupTable;
+
+/**
+ * <p>
+ * Lookups and insertions of each {@link MemoryLookupTable} implementation.</p>
+ *
+ * <p>
+ * Each benchmark visits every block of the table, so scores are per table.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupTableBenchmark {
+
+    private final static int BLOCK_SIZE = 16;
+
+    @Param({"dynamic", "static", "concurrent"})
+    public String table;
+
+    @Param({"4096"})
+    public int blocks;
+
+    private MemoryLookupTable lookupTable;
+    private Memory memory;
+    private int[] random;
+
+    @Setup
+    public void setup() {
+        lookupTable = create();
+        memory = new HeapMemory(BLOCK_SIZE);
+        random = new int[blocks];
+
+        Random rnd = new Random(42);
+        for (int i = 0; i < blocks; i++) {
+            random[i] = rnd.nextInt(blocks);
+            lookupTable.setAt(i, memory);
+        }
+    }
+
+    private MemoryLookupTable create() {
+        long size = (long) blocks * BLOCK_SIZE;
+        switch (table) {
+            case "dynamic":
+                return new DynamicMemoryLookupTable(size, BLOCK_SIZE);
+            case "static":
+                return new StaticMemoryLookupTable(size, BLOCK_SIZE);
+            case "concurrent":
+                return new ConcurrentMemoryLookupTable(size, BLOCK_SIZE);
+            default:
+                throw new IllegalArgumentException("Unknown table " + table);
+        }
+    }
+
+    @Benchmark
+    public int getSequential() {
+        int found = 0;
+        for (int i = 0; i < blocks; i++) {
+            if (lookupTable.getAt(i) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int getRandom() {
+        int found = 0;
+        for (int i = 0; i < blocks; i++) {
+            if (lookupTable.getAt(random[i]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public MemoryLookupTable fill() {
+        MemoryLookupTable fresh = create();
+        for (int i = 0; i < blocks; i++) {
+            fresh.setIfAbsent(random[i], memory);
+        }
+        return fresh;
+    }
+
+}
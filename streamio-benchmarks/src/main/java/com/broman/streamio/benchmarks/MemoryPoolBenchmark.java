@@ -0,0 +1,127 @@
+package com.broman.streamio.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.BasicMemoryPool;
+import com.broman.streamio.ConcurrentMemoryPool;
+import com.broman.streamio.Memory;
+import com.broman.streamio.MemoryAllocator;
+import com.broman.streamio.MemoryPool;
+import com.broman.streamio.SizeClassMemoryPool;
+import com.broman.streamio.Streamio;
+import com.broman.streamio.memory.HeapMemoryAllocator;
+import com.broman.streamio.memory.NativeMemoryAllocator;
+
+/**
+ * <p>
+ * Memory block churn through a {@link MemoryPool}, compared with allocating
+ * and closing every block.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryPoolBenchmark {
+
+    @Param({"heap", "direct"})
+    public String memory;
+
+    @Param({"1024"})
+    public int blockSize;
+
+    @Param({"basic", "concurrent", "sizeclass"})
+    public String type;
+
+    private MemoryAllocator allocator;
+    private MemoryPool pool;
+
+    @Setup
+    public void setup() {
+        allocator = memory.equals("heap") ? new HeapMemoryAllocator() : new NativeMemoryAllocator();
+        if (type.equals("basic")) {
+            BasicMemoryPool basic = new BasicMemoryPool(blockSize, allocator.getType());
+            basic.reserve(64, allocator);
+            pool = basic;
+        } else if (type.equals("sizeclass")) {
+            SizeClassMemoryPool sizeClass = SizeClassMemoryPool.powersOfTwo(blockSize, blockSize * 64);
+            sizeClass.reserve(64, blockSize, allocator);
+            pool = sizeClass;
+        } else {
+            ConcurrentMemoryPool concurrent = new ConcurrentMemoryPool(blockSize, allocator.getType());
+            concurrent.reserve(64, allocator);
+            pool = concurrent;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        pool.close();
+    }
+
+    @Benchmark
+    public Memory poolChurn() {
+        Memory block = pool.get(allocator, blockSize);
+        pool.offer(block);
+        return block;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Memory poolChurnShared() {
+        // Only meaningful for the thread-safe pools
+        if (type.equals("basic")) {
+            return null;
+        }
+        return poolChurn();
+    }
+
+    @Benchmark
+    public Memory allocateChurn() {
+        Memory block = allocator.allocate(blockSize);
+        block.close();
+        return block;
+    }
+
+    @Benchmark
+    public Streamio streamChurn() {
+        // A short-lived stream touching a few blocks, as a request would do
+        Streamio streamio = memory.equals("heap") ? Streamio.heap(blockSize * 8, blockSize) : Streamio.direct(blockSize * 8, blockSize);
+        streamio.useMemoryPool(pool);
+        for (int i = 0; i < 8; i++) {
+            streamio.put(i * blockSize, (byte) i);
+        }
+        streamio.close();
+        return streamio;
+    }
+
+    @Benchmark
+    public Streamio arenaStreamChurn() {
+        // The same stream with its blocks carved out of a single slab
+        Streamio streamio = Streamio.arena(blockSize * 8, blockSize);
+        for (int i = 0; i < 8; i++) {
+            streamio.put(i * blockSize, (byte) i);
+        }
+        streamio.close();
+        return streamio;
+    }
+
+}
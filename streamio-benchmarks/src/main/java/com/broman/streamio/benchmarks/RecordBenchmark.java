@@ -0,0 +1,147 @@
+package com.broman.streamio.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.Streamio;
+import com.broman.streamio.io.RecordView;
+import com.broman.streamio.io.SimpleMemoryReader;
+import com.broman.streamio.io.SimpleMemoryWriter;
+import com.broman.streamio.io.WireFormat;
+
+/**
+ * <p>
+ * A filter over tagged records, checking two fields of each, by decoding every
+ * record against reading them through a {@link RecordView}.</p>
+ *
+ * <p>
+ * Each benchmark filters {@link #count} records, so scores are per batch.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordBenchmark {
+
+    private final static int ID = 1;
+    private final static int VENUE = 2;
+    private final static int SYMBOL = 3;
+    private final static int QUANTITY = 4;
+    private final static int PRICE = 5;
+    private final static int TIME = 6;
+    private final static int NOTE = 7;
+
+    public record Order(long id, int venue, String symbol, int quantity, double price, long time, String note) {}
+
+    @Param({"1024"})
+    public int count;
+
+    private Streamio streamio;
+    private SimpleMemoryReader reader;
+    private RecordView view;
+
+    @Setup
+    public void setup() {
+        streamio = Streamio.heap(count * 128, 1024);
+        SimpleMemoryWriter writer = new SimpleMemoryWriter(streamio);
+        reader = new SimpleMemoryReader(streamio);
+        view = new RecordView();
+
+        Random random = new Random(42);
+        String[] symbols = {"AAPL", "MSFT", "GOOG", "AMZN"};
+        for (int i = 0; i < count; i++) {
+            int mark = writer.startRecord();
+            writer.writeTag(ID, WireFormat.VARINT);
+            writer.writeVarLong(random.nextLong());
+            writer.writeTag(VENUE, WireFormat.VARINT);
+            writer.writeVarInt(random.nextInt(16));
+            writer.writeTag(SYMBOL, WireFormat.LENGTH_DELIMITED);
+            writer.writeUtf8(symbols[random.nextInt(symbols.length)]);
+            writer.writeTag(QUANTITY, WireFormat.VARINT);
+            writer.writeVarInt(random.nextInt(1000));
+            writer.writeTag(PRICE, WireFormat.FIXED64);
+            writer.writeFixed64(Double.doubleToRawLongBits(random.nextDouble() * 100));
+            writer.writeTag(TIME, WireFormat.FIXED64);
+            writer.writeFixed64(System.currentTimeMillis());
+            writer.writeTag(NOTE, WireFormat.LENGTH_DELIMITED);
+            writer.writeUtf8("order note " + random.nextInt());
+            writer.endRecord(mark);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        streamio.close();
+    }
+
+    @Benchmark
+    public int decode() {
+        reader.getIndex().set(0);
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            if (accept(readOrder())) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int view() {
+        reader.getIndex().set(0);
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            reader.readRecord(view);
+            if (view.getVarInt(VENUE) == 3 && view.getVarInt(QUANTITY) > 500) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private static boolean accept(Order order) {
+        return order.venue() == 3 && order.quantity() > 500;
+    }
+
+    private Order readOrder() {
+        int end = reader.readVarInt();
+        end += reader.getIndex().get();
+        long id = 0, time = 0;
+        int venue = 0, quantity = 0;
+        double price = 0;
+        String symbol = null, note = null;
+        while (reader.getIndex().get() < end) {
+            int tag = reader.readTag();
+            switch (WireFormat.field(tag)) {
+                case ID -> id = reader.readVarLong();
+                case VENUE -> venue = reader.readVarInt();
+                case SYMBOL -> symbol = reader.readUtf8();
+                case QUANTITY -> quantity = reader.readVarInt();
+                case PRICE -> price = Double.longBitsToDouble(reader.readFixed64());
+                case TIME -> time = reader.readFixed64();
+                case NOTE -> note = reader.readUtf8();
+                default -> reader.skipField(tag);
+            }
+        }
+        return new Order(id, venue, symbol, quantity, price, time, note);
+    }
+
+}
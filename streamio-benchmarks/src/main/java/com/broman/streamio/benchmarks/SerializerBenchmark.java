@@ -0,0 +1,157 @@
+package com.broman.streamio.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.Streamio;
+import com.broman.streamio.io.MemoryIndex;
+import com.broman.streamio.io.MemoryReader;
+import com.broman.streamio.io.MemoryWriter;
+import com.broman.streamio.io.SimpleMemoryReader;
+import com.broman.streamio.io.SimpleMemoryWriter;
+import com.broman.streamio.serialization.GeneratedSerializer;
+import com.broman.streamio.serialization.ObjectSerializer;
+import com.broman.streamio.serialization.SerializationRegistry;
+
+/**
+ * <p>
+ * A {@link GeneratedSerializer} against a hand-written {@link ObjectSerializer}
+ * writing the same bytes.</p>
+ *
+ * <p>
+ * Each benchmark writes or reads {@link #count} objects, so scores are per batch.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    public record Trade(long id, int quantity, double price, boolean buy, String symbol) {}
+
+    /**
+     * What a generated serializer of {@link Trade} does.
+     */
+    private final static class TradeSerializer implements ObjectSerializer<Trade> {
+
+        @Override
+        public Class<Trade> getType() {
+            return Trade.class;
+        }
+
+        @Override
+        public void serialize(Trade object, MemoryWriter writer) {
+            writer.writeLong(object.id());
+            writer.writeInt(object.quantity());
+            writer.writeDouble(object.price());
+            writer.writeBoolean(object.buy());
+            writer.writeBoolean(object.symbol() != null);
+            if (object.symbol() != null) {
+                writer.writeUtf8(object.symbol());
+            }
+        }
+
+        @Override
+        public Trade unserialize(MemoryReader reader) {
+            return new Trade(reader.readLong(), reader.readInt(), reader.readDouble(), reader.readBoolean(),
+                    reader.readBoolean() ? reader.readUtf8() : null);
+        }
+
+    }
+
+    @Param({"generated", "handwritten"})
+    public String serializer;
+
+    @Param({"1024"})
+    public int count;
+
+    private Streamio streamio;
+    private SimpleMemoryWriter writer;
+    private SimpleMemoryReader reader;
+    private ObjectSerializer<Trade> trades;
+    private Trade[] objects;
+
+    @Setup
+    public void setup() {
+        streamio = Streamio.heap(count * 64, 1024);
+        writer = new SimpleMemoryWriter(streamio);
+        reader = new SimpleMemoryReader(streamio);
+        trades = serializer.equals("generated") ? GeneratedSerializer.of(Trade.class) : new TradeSerializer();
+        SerializationRegistry registry = new SerializationRegistry();
+        registry.register(trades, 0);
+        writer.setSerializers(registry);
+        reader.setSerializers(registry);
+
+        Random random = new Random(42);
+        String[] symbols = {"AAPL", "MSFT", "GOOG", "AMZN"};
+        objects = new Trade[count];
+        for (int i = 0; i < count; i++) {
+            objects[i] = new Trade(random.nextLong(), random.nextInt(1000), random.nextDouble() * 100,
+                    random.nextBoolean(), symbols[random.nextInt(symbols.length)]);
+        }
+
+        write();
+    }
+
+    @TearDown
+    public void tearDown() {
+        streamio.close();
+    }
+
+    @Benchmark
+    public MemoryIndex write() {
+        writer.getIndex().set(0);
+        for (Trade object : objects) {
+            writer.writeObject(object, trades);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public long read() {
+        reader.getIndex().set(0);
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += reader.readObject(trades).quantity();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public MemoryIndex writeFromRegistry() {
+        // Looks the serializer up for every object
+        writer.getIndex().set(0);
+        for (Trade object : objects) {
+            writer.writeObject(object);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public MemoryIndex writeTyped() {
+        writer.getIndex().set(0);
+        for (Trade object : objects) {
+            writer.writeTypedObject(object);
+        }
+        return writer.getIndex();
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.broman.streamio.benchmarks;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.Streamio;
+
+/**
+ * <p>
+ * Byte access and bulk transfer of {@link Streamio}, with {@link ByteBuffer} baselines.</p>
+ *
+ * <p>
+ * Each benchmark walks the whole stream, so scores are per stream, not per byte.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamioBenchmark {
+
+    @Param({"heap", "direct"})
+    public String memory;
+
+    @Param({"65536"})
+    public int size;
+
+    @Param({"1024"})
+    public int blockSize;
+
+    private Streamio streamio;
+    private ByteBuffer buffer;
+    private ByteBuffer target;
+    private byte[] array;
+    private int[] random;
+
+    @Setup
+    public void setup() {
+        boolean heap = memory.equals("heap");
+        streamio = heap ? Streamio.heap(size, blockSize) : Streamio.direct(size, blockSize);
+        buffer = heap ? ByteBuffer.allocate(size) : ByteBuffer.allocateDirect(size);
+        target = heap ? ByteBuffer.allocate(size) : ByteBuffer.allocateDirect(size);
+        array = new byte[size];
+        random = new int[size];
+
+        Random rnd = new Random(42);
+        rnd.nextBytes(array);
+        for (int i = 0; i < size; i++) {
+            random[i] = rnd.nextInt(size);
+        }
+        streamio.put(0, array);
+        buffer.put(array).clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        streamio.close();
+    }
+
+    @Benchmark
+    public int getSequential() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += streamio.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int getRandom() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += streamio.get(random[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void putSequential() {
+        for (int i = 0; i < size; i++) {
+            streamio.put(i, (byte) i);
+        }
+    }
+
+    @Benchmark
+    public void putRandom() {
+        for (int i = 0; i < size; i++) {
+            streamio.put(random[i], (byte) i);
+        }
+    }
+
+    @Benchmark
+    public void putArray() {
+        streamio.put(0, array);
+    }
+
+    @Benchmark
+    public byte[] array() {
+        return streamio.array(0, size - 1);
+    }
+
+    @Benchmark
+    public ByteBuffer writeToBuffer() {
+        target.clear();
+        streamio.writeTo(target, 0, size - 1);
+        return target;
+    }
+
+    @Benchmark
+    public void writeToStream() {
+        streamio.writeTo(OutputStream.nullOutputStream(), 0, size - 1);
+    }
+
+    @Benchmark
+    public int bufferGetSequential() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += buffer.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int bufferGetRandom() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += buffer.get(random[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void bufferPutSequential() {
+        for (int i = 0; i < size; i++) {
+            buffer.put(i, (byte) i);
+        }
+    }
+
+    @Benchmark
+    public void bufferPutRandom() {
+        for (int i = 0; i < size; i++) {
+            buffer.put(random[i], (byte) i);
+        }
+    }
+
+    @Benchmark
+    public byte[] bufferArray() {
+        byte[] content = new byte[size];
+        buffer.get(0, content);
+        return content;
+    }
+
+    @Benchmark
+    public ByteBuffer bufferWriteToBuffer() {
+        target.clear();
+        target.put(buffer.duplicate().clear());
+        return target;
+    }
+
+}
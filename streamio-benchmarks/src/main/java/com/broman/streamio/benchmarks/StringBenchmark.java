@@ -0,0 +1,186 @@
+package com.broman.streamio.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.broman.streamio.Streamio;
+import com.broman.streamio.io.MemoryIndex;
+import com.broman.streamio.io.SimpleMemoryReader;
+import com.broman.streamio.io.SimpleMemoryWriter;
+
+/**
+ * <p>
+ * String encodings of {@link SimpleMemoryWriter} and {@link SimpleMemoryReader},
+ * with a {@link String#getBytes} into {@link ByteBuffer} baseline.</p>
+ *
+ * <p>
+ * Each benchmark writes or reads {@link #count} strings, so scores are per batch.</p>
+ *
+ * @author Brayan Roman
+ * @since  1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringBenchmark {
+
+    private final static int KEYS = 16;
+
+    @Param({"ascii", "mixed"})
+    public String text;
+
+    @Param({"heap", "direct"})
+    public String memory;
+
+    @Param({"32"})
+    public int length;
+
+    @Param({"1024"})
+    public int count;
+
+    private Streamio streamio;
+    private SimpleMemoryWriter writer;
+    private SimpleMemoryReader reader;
+    private ByteBuffer buffer;
+    private String[] strings;
+    private String[] repeated;
+    private int region;
+
+    @Setup
+    public void setup() {
+        boolean heap = memory.equals("heap");
+        // UTF-8 strings, char strings and repeated strings, each with room for two bytes per char
+        region = count * (length * Character.BYTES + Integer.BYTES);
+        int size = region * 3;
+
+        streamio = heap ? Streamio.heap(size, 1024) : Streamio.direct(size, 1024);
+        writer = new SimpleMemoryWriter(streamio);
+        reader = new SimpleMemoryReader(streamio);
+        buffer = heap ? ByteBuffer.allocate(size) : ByteBuffer.allocateDirect(size);
+
+        Random random = new Random(42);
+        strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                // Mixed text has one accented letter every eight chars
+                boolean accent = text.equals("mixed") && j % 8 == 7;
+                builder.append((char) (accent ? 0xE0 + random.nextInt(32) : 'a' + random.nextInt(26)));
+            }
+            strings[i] = builder.toString();
+        }
+        repeated = new String[count];
+        for (int i = 0; i < count; i++) {
+            // Keys of a record, a few strings written over and over
+            repeated[i] = strings[random.nextInt(KEYS)];
+        }
+
+        writeUtf8();
+        writeCharString();
+        writeDictionaryString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        streamio.close();
+    }
+
+    @Benchmark
+    public MemoryIndex writeUtf8() {
+        writer.getIndex().set(0);
+        for (String value : strings) {
+            writer.writeUtf8(value);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public int readUtf8() {
+        reader.getIndex().set(0);
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += reader.readUtf8().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public MemoryIndex writeCharString() {
+        writer.getIndex().set(region);
+        for (String value : strings) {
+            writer.writeCharString(value);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public int readCharString() {
+        reader.getIndex().set(region);
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += reader.readCharString().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public MemoryIndex writeRepeatedUtf8() {
+        // Same strings as writeDictionaryString
+        writer.getIndex().set(region * 2);
+        for (String value : repeated) {
+            writer.writeUtf8(value);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public MemoryIndex writeDictionaryString() {
+        writer.getIndex().set(region * 2);
+        writer.resetDictionary();
+        for (String value : repeated) {
+            writer.writeDictionaryString(value);
+        }
+        return writer.getIndex();
+    }
+
+    @Benchmark
+    public int readDictionaryString() {
+        reader.getIndex().set(region * 2);
+        reader.resetDictionary();
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += reader.readDictionaryString().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ByteBuffer bufferWriteUtf8() {
+        buffer.clear();
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+        return buffer;
+    }
+
+}